@@ -1,16 +1,20 @@
 package me.whiteship.springrestapidemo.accounts;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Set;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter @Setter @EqualsAndHashCode(of="id")
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Account {
-	@Id @GeneratedValue
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+	@SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
 	private Integer id;
 
 	private String email;
@@ -18,6 +22,7 @@ public class Account {
 	private String password;
 
 	@ElementCollection(fetch = FetchType.EAGER)
+	@BatchSize(size = 100)
 	@Enumerated(EnumType.STRING)
 	private Set<AccountRole> roles;
 
@@ -0,0 +1,17 @@
+package me.whiteship.springrestapidemo.accounts;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+@Getter
+public class AccountAdapter extends User {
+	private final Integer accountId;
+
+	public AccountAdapter(Integer accountId, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+		super(username, password, authorities);
+		this.accountId = accountId;
+	}
+}
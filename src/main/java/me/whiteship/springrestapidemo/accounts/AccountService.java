@@ -1,15 +1,24 @@
 package me.whiteship.springrestapidemo.accounts;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.whiteship.springrestapidemo.common.ReplicaRoutingDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
@@ -23,17 +32,59 @@ public class AccountService implements UserDetailsService {
 	@Autowired
 	PasswordEncoder passwordEncoder;
 
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${app.accounts.user-cache.maximum-size:10000}")
+	long userCacheMaximumSize;
+
+	@Value("${app.accounts.user-cache.time-to-live:5m}")
+	Duration userCacheTimeToLive;
+
+	private Cache<String, AccountAdapter> userDetailsCache;
+	private Timer loadUserTimer;
+
+	@PostConstruct
+	public void initUserDetailsCache() {
+		this.userDetailsCache = Caffeine.newBuilder()
+				.maximumSize(userCacheMaximumSize)
+				.expireAfterWrite(userCacheTimeToLive)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "accounts.user-details");
+		this.loadUserTimer = Timer.builder("accounts.load-user").register(meterRegistry);
+	}
+
 	public Account saveAccount(Account account) {
+		if (account.getId() != null) {
+			this.accountRepository.findById(account.getId())
+					.ifPresent(existing -> this.userDetailsCache.invalidate(existing.getEmail()));
+		}
 		account.setPassword(this.passwordEncoder.encode(account.getPassword()));
-		return this.accountRepository.save(account);
+		Account savedAccount = this.accountRepository.save(account);
+		this.userDetailsCache.invalidate(savedAccount.getEmail());
+		return savedAccount;
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		Account account = accountRepository.findByEmail(username)
+		AccountAdapter cached = this.loadUserTimer.record(() -> this.userDetailsCache.get(username, this::loadAccount));
+
+		// authentication erases the credentials of what we return, so never hand out the cached instance
+		return new AccountAdapter(cached.getAccountId(), cached.getUsername(), cached.getPassword(), cached.getAuthorities());
+	}
+
+	public CacheStats userDetailsCacheStats() {
+		return this.userDetailsCache.stats();
+	}
+
+	private AccountAdapter loadAccount(String username) {
+		Optional<Account> replicated = ReplicaRoutingDataSource.readFromReplica(() -> accountRepository.findByEmail(username));
+		// an account signed up a moment ago may not have reached the replica yet
+		Account account = (replicated.isPresent() ? replicated : accountRepository.findByEmail(username))
 				.orElseThrow(() -> new UsernameNotFoundException(username));
 
-		return new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+		return new AccountAdapter(account.getId(), account.getEmail(), account.getPassword(), authorities(account.getRoles()));
 	}
 
 	private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
@@ -0,0 +1,67 @@
+package me.whiteship.springrestapidemo.common;
+
+import me.whiteship.springrestapidemo.events.EventController;
+import me.whiteship.springrestapidemo.index.IndexController;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+public final class ApiLinks {
+	private static final String CACHE_ATTRIBUTE = ApiLinks.class.getName() + ".BASE_URIS";
+	private static final Map<String, Link> PROFILES = new ConcurrentHashMap<>();
+
+	private ApiLinks() {
+	}
+
+	public static Link events(String rel) {
+		return new Link(eventsHref(), rel);
+	}
+
+	public static Link event(Object id, String rel) {
+		return new Link(eventHref(id), rel);
+	}
+
+	public static URI eventUri(Object id) {
+		return URI.create(eventHref(id));
+	}
+
+	public static Link index(String rel) {
+		return new Link(baseHref("index", () -> linkTo(methodOn(IndexController.class).index()).toString()), rel);
+	}
+
+	public static Link profile(String anchor) {
+		return PROFILES.computeIfAbsent(anchor, a -> new Link("/docs/index.html#" + a).withRel("profile"));
+	}
+
+	private static String eventsHref() {
+		return baseHref("events", () -> linkTo(EventController.class).toString());
+	}
+
+	private static String eventHref(Object id) {
+		return eventsHref() + "/" + id;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String baseHref(String key, Supplier<String> resolver) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return resolver.get();
+		}
+
+		Map<String, String> baseHrefs = (Map<String, String>) attributes.getAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (baseHrefs == null) {
+			baseHrefs = new HashMap<>();
+			attributes.setAttribute(CACHE_ATTRIBUTE, baseHrefs, RequestAttributes.SCOPE_REQUEST);
+		}
+		return baseHrefs.computeIfAbsent(key, k -> resolver.get());
+	}
+}
@@ -0,0 +1,126 @@
+package me.whiteship.springrestapidemo.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class DbExecutor implements MeterBinder, WebMvcConfigurer {
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Value("${app.db-executor.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+	int poolSize;
+
+	@Value("${app.db-executor.queue-capacity:100}")
+	int queueCapacity;
+
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private final AtomicLong rejected = new AtomicLong();
+
+	@PostConstruct
+	public void initExecutor() {
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("db-");
+		executor.setTaskDecorator(DbExecutor::withRequestAttributes);
+		executor.setRejectedExecutionHandler((task, pool) -> {
+			rejected.incrementAndGet();
+			throw new RejectedExecutionException("DB executor saturated: " + pool.getQueue().size() + " tasks queued");
+		});
+		executor.initialize();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+		return CompletableFuture.supplyAsync(() -> withEntityManager(supplier), executor);
+	}
+
+	/**
+	 * Like {@link #supply(Supplier)}, but for tasks that only read and can be served by a replica.
+	 */
+	public <T> CompletableFuture<T> supplyReadOnly(Supplier<T> supplier) {
+		return supply(() -> ReplicaRoutingDataSource.readFromReplica(supplier));
+	}
+
+	/**
+	 * Streaming responses run on this pool too, so a long export or import holds one of its threads like any other
+	 * task, and is rejected when the queue is full instead of piling up behind MVC's unbounded default executor.
+	 */
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(executor);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "db", Tags.empty()).bindTo(registry);
+		FunctionCounter.builder("executor.rejected", rejected, AtomicLong::doubleValue)
+				.tag("name", "db")
+				.description("Tasks rejected because the DB executor queue was full")
+				.register(registry);
+	}
+
+	private <T> T withEntityManager(Supplier<T> supplier) {
+		if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+			return supplier.get();
+		}
+
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			return supplier.get();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			EntityManagerFactoryUtils.closeEntityManager(entityManager);
+		}
+	}
+
+	private static Runnable withRequestAttributes(Runnable task) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (!(attributes instanceof ServletRequestAttributes)) {
+			return task;
+		}
+
+		ServletRequestAttributes servletAttributes = (ServletRequestAttributes) attributes;
+		return () -> {
+			ServletRequestAttributes taskAttributes =
+					new ServletRequestAttributes(servletAttributes.getRequest(), servletAttributes.getResponse());
+			RequestContextHolder.setRequestAttributes(taskAttributes);
+			try {
+				task.run();
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+				taskAttributes.requestCompleted();
+			}
+		};
+	}
+}
@@ -0,0 +1,120 @@
+package me.whiteship.springrestapidemo.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deadlines keyed by id, hashed by tick into a fixed ring of buckets. Scheduling, rescheduling and
+ * cancelling are O(1); advancing only visits the buckets of the ticks that passed, and deadlines further
+ * away than one turn of the wheel simply stay in their bucket until their tick comes round.
+ */
+public class HashedTimerWheel<K> {
+	private final long tickMillis;
+	private final Entry<K>[] buckets;
+	private final int mask;
+	private final Map<K, Entry<K>> entries = new HashMap<>();
+	private long currentTick;
+
+	@SuppressWarnings("unchecked")
+	public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+		if (tickMillis <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+		}
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+		this.tickMillis = tickMillis;
+		this.buckets = new Entry[size];
+		this.mask = this.buckets.length - 1;
+		this.currentTick = startMillis / tickMillis;
+	}
+
+	/**
+	 * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any earlier deadline for it.
+	 * Deadlines are rounded up to the next tick, so a key never expires early; deadlines that already passed
+	 * expire on the next advance.
+	 */
+	public synchronized void schedule(K key, long deadlineMillis) {
+		cancel(key);
+		Entry<K> entry = new Entry<>(key, Math.max((deadlineMillis + this.tickMillis - 1) / this.tickMillis, this.currentTick + 1));
+		int bucket = (int) (entry.tick & this.mask);
+		entry.next = this.buckets[bucket];
+		if (entry.next != null) {
+			entry.next.prev = entry;
+		}
+		this.buckets[bucket] = entry;
+		this.entries.put(key, entry);
+	}
+
+	public synchronized boolean cancel(K key) {
+		Entry<K> entry = this.entries.remove(key);
+		if (entry == null) {
+			return false;
+		}
+		unlink(entry);
+		return true;
+	}
+
+	/**
+	 * Moves the wheel to {@code nowMillis} and returns the keys whose deadline passed, in no particular order.
+	 */
+	public synchronized List<K> advance(long nowMillis) {
+		long nowTick = nowMillis / this.tickMillis;
+		List<K> expired = new ArrayList<>();
+		if (nowTick <= this.currentTick) {
+			return expired;
+		}
+
+		long from = Math.max(this.currentTick + 1, nowTick - this.mask);
+		for (long tick = from; tick <= nowTick; tick++) {
+			Entry<K> entry = this.buckets[(int) (tick & this.mask)];
+			while (entry != null) {
+				Entry<K> next = entry.next;
+				if (entry.tick <= nowTick) {
+					unlink(entry);
+					this.entries.remove(entry.key);
+					expired.add(entry.key);
+				}
+				entry = next;
+			}
+		}
+		this.currentTick = nowTick;
+		return expired;
+	}
+
+	public synchronized boolean contains(K key) {
+		return this.entries.containsKey(key);
+	}
+
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	private void unlink(Entry<K> entry) {
+		if (entry.prev != null) {
+			entry.prev.next = entry.next;
+		} else {
+			this.buckets[(int) (entry.tick & this.mask)] = entry.next;
+		}
+		if (entry.next != null) {
+			entry.next.prev = entry.prev;
+		}
+		entry.prev = null;
+		entry.next = null;
+	}
+
+	private static class Entry<K> {
+		final K key;
+		final long tick;
+		Entry<K> prev;
+		Entry<K> next;
+
+		Entry(K key, long tick) {
+			this.key = key;
+			this.tick = tick;
+		}
+	}
+}
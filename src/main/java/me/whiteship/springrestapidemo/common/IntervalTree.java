@@ -0,0 +1,155 @@
+package me.whiteship.springrestapidemo.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed intervals keyed by id, kept in a treap ordered by start and augmented with the largest end of each
+ * subtree. Writers copy the path they change and publish a new root, so lookups never lock and always see
+ * a consistent tree.
+ */
+public class IntervalTree<P extends Comparable<? super P>, V> {
+	private final Map<Integer, P> starts = new HashMap<>();
+	private volatile Node<P, V> root;
+
+	public synchronized void put(Integer id, P start, P end, V value) {
+		Node<P, V> root = remove(this.root, id);
+		if (start != null && end != null && start.compareTo(end) <= 0) {
+			this.starts.put(id, start);
+			root = insert(root, new Node<>(id, start, end, value, ThreadLocalRandom.current().nextInt(), null, null));
+		}
+		this.root = root;
+	}
+
+	public synchronized void remove(Integer id) {
+		this.root = remove(this.root, id);
+	}
+
+	/**
+	 * Values whose interval shares at least one point with {@code [from, to]}, ordered by start.
+	 */
+	public List<V> overlapping(P from, P to) {
+		List<V> result = new ArrayList<>();
+		collect(this.root, from, to, result);
+		return result;
+	}
+
+	public int size() {
+		Node<P, V> root = this.root;
+		return root == null ? 0 : root.size;
+	}
+
+	private Node<P, V> remove(Node<P, V> root, Integer id) {
+		P start = this.starts.remove(id);
+		return start == null ? root : delete(root, start, id);
+	}
+
+	private static <P extends Comparable<? super P>, V> void collect(Node<P, V> node, P from, P to, List<V> result) {
+		while (node != null && node.maxEnd.compareTo(from) >= 0) {
+			collect(node.left, from, to, result);
+			if (node.start.compareTo(to) > 0) {
+				return;
+			}
+			if (node.end.compareTo(from) >= 0) {
+				result.add(node.value);
+			}
+			node = node.right;
+		}
+	}
+
+	private static <P extends Comparable<? super P>, V> Node<P, V> insert(Node<P, V> root, Node<P, V> node) {
+		if (root == null) {
+			return node;
+		}
+		if (node.priority > root.priority) {
+			Node<P, V>[] split = split(root, node.start, node.id);
+			return node.with(split[0], split[1]);
+		}
+		return node.compareTo(root.start, root.id) < 0
+				? root.with(insert(root.left, node), root.right)
+				: root.with(root.left, insert(root.right, node));
+	}
+
+	private static <P extends Comparable<? super P>, V> Node<P, V> delete(Node<P, V> root, P start, Integer id) {
+		if (root == null) {
+			return null;
+		}
+		int compared = root.compareTo(start, id);
+		if (compared == 0) {
+			return merge(root.left, root.right);
+		}
+		return compared > 0
+				? root.with(delete(root.left, start, id), root.right)
+				: root.with(root.left, delete(root.right, start, id));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <P extends Comparable<? super P>, V> Node<P, V>[] split(Node<P, V> root, P start, Integer id) {
+		if (root == null) {
+			return new Node[2];
+		}
+		if (root.compareTo(start, id) < 0) {
+			Node<P, V>[] split = split(root.right, start, id);
+			split[0] = root.with(root.left, split[0]);
+			return split;
+		}
+		Node<P, V>[] split = split(root.left, start, id);
+		split[1] = root.with(split[1], root.right);
+		return split;
+	}
+
+	private static <P extends Comparable<? super P>, V> Node<P, V> merge(Node<P, V> left, Node<P, V> right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		return left.priority > right.priority
+				? left.with(left.left, merge(left.right, right))
+				: right.with(merge(left, right.left), right.right);
+	}
+
+	private static final class Node<P extends Comparable<? super P>, V> {
+		final Integer id;
+		final P start;
+		final P end;
+		final V value;
+		final int priority;
+		final Node<P, V> left;
+		final Node<P, V> right;
+		final P maxEnd;
+		final int size;
+
+		Node(Integer id, P start, P end, V value, int priority, Node<P, V> left, Node<P, V> right) {
+			this.id = id;
+			this.start = start;
+			this.end = end;
+			this.value = value;
+			this.priority = priority;
+			this.left = left;
+			this.right = right;
+			this.maxEnd = max(end, max(left == null ? null : left.maxEnd, right == null ? null : right.maxEnd));
+			this.size = 1 + (left == null ? 0 : left.size) + (right == null ? 0 : right.size);
+		}
+
+		Node<P, V> with(Node<P, V> left, Node<P, V> right) {
+			return new Node<>(id, start, end, value, priority, left, right);
+		}
+
+		int compareTo(P start, Integer id) {
+			int compared = this.start.compareTo(start);
+			return compared != 0 ? compared : this.id.compareTo(id);
+		}
+
+		private static <P extends Comparable<? super P>> P max(P a, P b) {
+			if (a == null) {
+				return b;
+			}
+			return b == null || a.compareTo(b) >= 0 ? a : b;
+		}
+	}
+}
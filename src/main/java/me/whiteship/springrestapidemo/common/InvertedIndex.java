@@ -0,0 +1,259 @@
+package me.whiteship.springrestapidemo.common;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to document postings kept sorted by document id. A query matches documents that have a term starting
+ * with each of its tokens and ranks them by the sum of idf-weighted term weights.
+ * <p>
+ * A token is expanded to at most {@value #MAX_PREFIX_TERMS} terms, the ones found in the most documents. A document
+ * whose only match for a short token is a rarer term beyond that is not found; a longer token narrows the terms.
+ */
+public class InvertedIndex {
+	private static final int MAX_PREFIX_TERMS = 64;
+	private static final Comparator<ScoredDocument> BY_RANK = Comparator.comparingDouble(ScoredDocument::getScore).reversed()
+			.thenComparingInt(ScoredDocument::getId);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final TreeMap<String, Postings> postings = new TreeMap<>();
+	private final Map<Integer, String[]> documentTerms = new HashMap<>();
+
+	public static List<String> tokenize(String text) {
+		if (text == null) {
+			return Collections.emptyList();
+		}
+
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (letter && start < 0) {
+				start = i;
+			} else if (!letter && start >= 0) {
+				tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	public void put(int id, Map<String, Float> termWeights) {
+		lock.writeLock().lock();
+		try {
+			removeDocument(id);
+			String[] terms = new String[termWeights.size()];
+			int i = 0;
+			for (Map.Entry<String, Float> termWeight : termWeights.entrySet()) {
+				Postings termPostings = this.postings.computeIfAbsent(termWeight.getKey(), Postings::new);
+				termPostings.put(id, termWeight.getValue());
+				terms[i++] = termPostings.term;
+			}
+			this.documentTerms.put(id, terms);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(int id) {
+		lock.writeLock().lock();
+		try {
+			removeDocument(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return this.documentTerms.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<Integer> search(String query, int limit) {
+		List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+		if (tokens.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		lock.readLock().lock();
+		try {
+			List<List<Postings>> groups = new ArrayList<>(tokens.size());
+			for (String token : tokens) {
+				List<Postings> group = prefixed(token);
+				if (group.isEmpty()) {
+					return Collections.emptyList();
+				}
+				groups.add(group);
+			}
+			groups.sort(Comparator.comparingInt(InvertedIndex::documentCount));
+
+			int documents = this.documentTerms.size();
+			PriorityQueue<ScoredDocument> top = new PriorityQueue<>(limit + 1, BY_RANK.reversed());
+			List<Postings> driver = groups.get(0);
+			List<List<Postings>> others = groups.subList(1, groups.size());
+			if (driver.size() == 1) {
+				Postings termPostings = driver.get(0);
+				float idf = termPostings.idf(documents);
+				for (int i = 0; i < termPostings.size; i++) {
+					int id = termPostings.ids[i];
+					offer(top, limit, id, termPostings.weights[i] * idf, others, documents);
+				}
+			} else {
+				for (int id : union(driver)) {
+					offer(top, limit, id, 0, groups, documents);
+				}
+			}
+
+			List<ScoredDocument> ranked = new ArrayList<>(top);
+			ranked.sort(BY_RANK);
+			List<Integer> ids = new ArrayList<>(ranked.size());
+			ranked.forEach(document -> ids.add(document.getId()));
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<Postings> prefixed(String prefix) {
+		List<Postings> group = new ArrayList<>(this.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+		if (group.size() <= MAX_PREFIX_TERMS) {
+			return group;
+		}
+		group.sort(Comparator.comparingInt((Postings termPostings) -> termPostings.size).reversed());
+		return new ArrayList<>(group.subList(0, MAX_PREFIX_TERMS));
+	}
+
+	private static int documentCount(List<Postings> group) {
+		int count = 0;
+		for (Postings termPostings : group) {
+			count += termPostings.size;
+		}
+		return count;
+	}
+
+	private static void offer(PriorityQueue<ScoredDocument> top, int limit, int id, float score,
+	                          List<List<Postings>> groups, int documents) {
+		for (List<Postings> group : groups) {
+			float best = 0;
+			for (Postings termPostings : group) {
+				best = Math.max(best, termPostings.weight(id) * termPostings.idf(documents));
+			}
+			if (best == 0) {
+				return;
+			}
+			score += best;
+		}
+
+		ScoredDocument lowest = top.peek();
+		if (top.size() < limit || score > lowest.getScore() || (score == lowest.getScore() && id < lowest.getId())) {
+			top.add(new ScoredDocument(id, score));
+			if (top.size() > limit) {
+				top.poll();
+			}
+		}
+	}
+
+	private static int[] union(List<Postings> group) {
+		int[] ids = new int[documentCount(group)];
+		int size = 0;
+		for (Postings termPostings : group) {
+			System.arraycopy(termPostings.ids, 0, ids, size, termPostings.size);
+			size += termPostings.size;
+		}
+		Arrays.sort(ids);
+
+		int distinct = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (i == 0 || ids[i] != ids[i - 1]) {
+				ids[distinct++] = ids[i];
+			}
+		}
+		return Arrays.copyOf(ids, distinct);
+	}
+
+	private void removeDocument(int id) {
+		String[] terms = this.documentTerms.remove(id);
+		if (terms == null) {
+			return;
+		}
+		for (String term : terms) {
+			Postings termPostings = this.postings.get(term);
+			termPostings.remove(id);
+			if (termPostings.size == 0) {
+				this.postings.remove(term);
+			}
+		}
+	}
+
+	private static final class Postings {
+		final String term;
+		int[] ids = new int[4];
+		float[] weights = new float[4];
+		int size;
+
+		Postings(String term) {
+			this.term = term;
+		}
+
+		void put(int id, float weight) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index >= 0) {
+				weights[index] = weight;
+				return;
+			}
+
+			index = -index - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			System.arraycopy(weights, index, weights, index + 1, size - index);
+			ids[index] = id;
+			weights[index] = weight;
+			size++;
+		}
+
+		void remove(int id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index < 0) {
+				return;
+			}
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+			size--;
+		}
+
+		float weight(int id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			return index < 0 ? 0 : weights[index];
+		}
+
+		float idf(int documents) {
+			return (float) Math.log(1 + (double) documents / size);
+		}
+	}
+
+	@Value
+	private static class ScoredDocument {
+		int id;
+		float score;
+	}
+}
@@ -0,0 +1,163 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends reads that opted in through {@link #readFromReplica(Supplier)} to the replicas in turn and everything
+ * else to the primary. Only connections taken outside a transaction or inside a read-only one are routed, so
+ * a write nested in a replica read still lands on the primary. A replica that refuses a connection is skipped
+ * for {@code retryAfter}; with no replica left the read falls back to the primary.
+ * <p>
+ * Wrap it in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the connection is
+ * only taken once the transaction settings are known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+	private static final String PRIMARY = "primary";
+	private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+	private static final ThreadLocal<Boolean> REPLICA_USED = new ThreadLocal<>();
+
+	private final DataSource primary;
+	private final List<Replica> replicas = new ArrayList<>();
+	private final long retryAfterNanos;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration retryAfter) {
+		this.primary = primary;
+		this.retryAfterNanos = retryAfter.toNanos();
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = new Replica("replica-" + i, replicas.get(i));
+			this.replicas.add(replica);
+			targets.put(replica.name, replica.dataSource);
+		}
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Runs {@code reader} with its connections taken from a replica. Use it only for reads that tolerate
+	 * replication lag.
+	 */
+	public static <T> T readFromReplica(Supplier<T> reader) {
+		if (REPLICA_READ.get() != null) {
+			return reader.get();
+		}
+
+		REPLICA_READ.set(Boolean.TRUE);
+		try {
+			return reader.get();
+		} finally {
+			REPLICA_READ.remove();
+			REPLICA_USED.remove();
+		}
+	}
+
+	/**
+	 * Whether the current {@link #readFromReplica(Supplier)} has taken a connection from a replica, so what it
+	 * read may be older than the primary.
+	 */
+	public static boolean isServedByReplica() {
+		return REPLICA_USED.get() != null;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		for (Replica replica = nextReplica(); replica != null; replica = nextReplica()) {
+			try {
+				Connection connection = replica.dataSource.getConnection();
+				REPLICA_USED.set(Boolean.TRUE);
+				return connection;
+			} catch (SQLException e) {
+				replica.markDown(this.retryAfterNanos);
+				log.warn("Replica {} is unavailable, skipping it for {} ms: {}", replica.name,
+						Duration.ofNanos(this.retryAfterNanos).toMillis(), e.toString());
+			}
+		}
+		return this.primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return determineTargetDataSource().getConnection(username, password);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Replica replica = nextReplica();
+		if (replica == null) {
+			return PRIMARY;
+		}
+		REPLICA_USED.set(Boolean.TRUE);
+		return replica.name;
+	}
+
+	List<String> availableReplicas() {
+		List<String> names = new ArrayList<>();
+		long now = System.nanoTime();
+		for (Replica replica : this.replicas) {
+			if (replica.isUp(now)) {
+				names.add(replica.name);
+			}
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	private Replica nextReplica() {
+		if (this.replicas.isEmpty() || REPLICA_READ.get() == null) {
+			return null;
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+				&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return null;
+		}
+
+		long now = System.nanoTime();
+		int start = this.next.getAndIncrement() & Integer.MAX_VALUE;
+		for (int i = 0; i < this.replicas.size(); i++) {
+			Replica replica = this.replicas.get((start + i) % this.replicas.size());
+			if (replica.isUp(now)) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	private static class Replica {
+		final String name;
+		final DataSource dataSource;
+		volatile long downUntil;
+		volatile boolean down;
+
+		Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+
+		boolean isUp(long now) {
+			return !this.down || now - this.downUntil >= 0;
+		}
+
+		void markDown(long retryAfterNanos) {
+			this.downUntil = System.nanoTime() + retryAfterNanos;
+			this.down = true;
+		}
+	}
+}
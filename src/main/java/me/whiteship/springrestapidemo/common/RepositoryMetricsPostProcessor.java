@@ -0,0 +1,47 @@
+package me.whiteship.springrestapidemo.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call on a Spring Data repository proxy, including its transaction and exception translation advice.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+	private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+	public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof Repository && bean instanceof Advised) {
+			Advised repository = (Advised) bean;
+			String name = repository.getProxiedInterfaces()[0].getSimpleName();
+			repository.addAdvice(0, (MethodInterceptor) invocation -> {
+				Timer timer = timers.computeIfAbsent(invocation.getMethod(), method -> Timer.builder("repository.invocations")
+						.tag("repository", name)
+						.tag("method", method.getName())
+						.register(meterRegistry.getObject()));
+				long start = System.nanoTime();
+				try {
+					return invocation.proceed();
+				} finally {
+					timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			});
+		}
+		return bean;
+	}
+}
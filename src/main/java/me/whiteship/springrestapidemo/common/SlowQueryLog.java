@@ -0,0 +1,56 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Logs a statement only when it is slower than the threshold or picked by the sample rate, together with a
+ * fingerprint of its text so that the same query with different literals can be grouped.
+ */
+public class SlowQueryLog {
+	private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private final long thresholdNanos;
+	private final double sampleRate;
+
+	public SlowQueryLog(Duration threshold, double sampleRate) {
+		this.thresholdNanos = threshold.toNanos();
+		this.sampleRate = sampleRate;
+	}
+
+	public void executed(String sql, long elapsedNanos) {
+		String reason = reason(elapsedNanos);
+		if (reason != null && sql != null && log.isInfoEnabled()) {
+			String fingerprint = fingerprint(sql);
+			log.info("{} query {}ms [{}] {}", reason, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+					Integer.toHexString(fingerprint.hashCode()), fingerprint);
+		}
+	}
+
+	String reason(long elapsedNanos) {
+		if (elapsedNanos >= thresholdNanos) {
+			return "slow";
+		}
+		if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+			return "sampled";
+		}
+		return null;
+	}
+
+	static String fingerprint(String sql) {
+		String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+		fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+		fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+		return IN_LIST.matcher(fingerprint).replaceAll("(?+)").toLowerCase();
+	}
+}
@@ -0,0 +1,88 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the rows read into the {@link SqlStatistics} of the current request. Every JDBC call of a request then
+ * goes through a reflective proxy, so it is only installed when {@code app.sql-metrics.count-rows} is set;
+ * statements and their time are counted by {@link SqlMetricsSessionListener} either way. Outside a request
+ * connections are handed out unwrapped.
+ */
+public class SqlMetricsDataSource extends DelegatingDataSource {
+
+	public SqlMetricsDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return track(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return track(super.getConnection(username, password));
+	}
+
+	private Connection track(Connection connection) {
+		SqlStatistics statistics = SqlStatistics.current();
+		if (statistics == null) {
+			return connection;
+		}
+		return proxy(Connection.class, connection, (proxy, method, args) -> {
+			Object result = invoke(connection, method, args);
+			if (result instanceof CallableStatement) {
+				return proxy(CallableStatement.class, result, statementHandler((Statement) result, statistics));
+			}
+			if (result instanceof PreparedStatement) {
+				return proxy(PreparedStatement.class, result, statementHandler((Statement) result, statistics));
+			}
+			if (result instanceof Statement) {
+				return proxy(Statement.class, result, statementHandler((Statement) result, statistics));
+			}
+			return result;
+		});
+	}
+
+	private static InvocationHandler statementHandler(Statement statement, SqlStatistics statistics) {
+		return (proxy, method, args) -> {
+			Object result = invoke(statement, method, args);
+			return result instanceof ResultSet ? rows((ResultSet) result, statistics) : result;
+		};
+	}
+
+	private static ResultSet rows(ResultSet resultSet, SqlStatistics statistics) {
+		return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+			Object result = invoke(resultSet, method, args);
+			if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+				statistics.fetched();
+			}
+			return result;
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package me.whiteship.springrestapidemo.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+public class SqlMetricsInterceptor implements HandlerInterceptor {
+	private final MeterRegistry meterRegistry;
+	private final boolean countRows;
+
+	public SqlMetricsInterceptor(MeterRegistry meterRegistry, boolean countRows) {
+		this.meterRegistry = meterRegistry;
+		this.countRows = countRows;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		RequestAttributes attributes = new ServletRequestAttributes(request);
+		if (SqlStatistics.of(attributes) == null) {
+			SqlStatistics.start(attributes);
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		SqlStatistics statistics = SqlStatistics.of(new ServletRequestAttributes(request));
+		if (statistics == null) {
+			return;
+		}
+
+		Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Tags tags = Tags.of("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString());
+		DistributionSummary.builder("http.server.requests.sql.statements").tags(tags)
+				.register(meterRegistry).record(statistics.getStatements());
+		if (countRows) {
+			DistributionSummary.builder("http.server.requests.sql.rows").tags(tags)
+					.register(meterRegistry).record(statistics.getRows());
+		}
+		Timer.builder("http.server.requests.sql.time").tags(tags)
+				.register(meterRegistry).record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+	}
+}
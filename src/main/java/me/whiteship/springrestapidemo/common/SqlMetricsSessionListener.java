@@ -0,0 +1,77 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts and times the statements Hibernate executes into the {@link SqlStatistics} of the current request and
+ * hands each execution to the {@link SlowQueryLog}. Hibernate calls it around every statement and batch it runs,
+ * so nothing is wrapped or invoked reflectively on the JDBC path.
+ * <p>
+ * Hibernate creates one listener per session from its class name ({@code hibernate.session.events.auto}), so
+ * the SQL text and the slow-query log reach it through a thread local filled by {@link #statementInspector},
+ * which sees each statement just before it is prepared on the same thread.
+ */
+public class SqlMetricsSessionListener extends BaseSessionEventListener {
+	private static final ThreadLocal<PreparedStatementText> PREPARED = ThreadLocal.withInitial(PreparedStatementText::new);
+
+	private long started;
+
+	public static StatementInspector statementInspector(SlowQueryLog slowQueryLog) {
+		return statementInspector(slowQueryLog, sql -> sql);
+	}
+
+	/**
+	 * Records the statement for the slow-query log after {@code next} had its say, so an inspector that was
+	 * already configured keeps working.
+	 */
+	public static StatementInspector statementInspector(SlowQueryLog slowQueryLog, StatementInspector next) {
+		if (slowQueryLog == null) {
+			return next;
+		}
+		return sql -> {
+			String inspected = next.inspect(sql);
+			PreparedStatementText prepared = PREPARED.get();
+			prepared.slowQueryLog = slowQueryLog;
+			prepared.sql = inspected == null ? sql : inspected;
+			return inspected;
+		};
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		this.started = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		executed(System.nanoTime() - this.started);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		this.started = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		executed(System.nanoTime() - this.started);
+	}
+
+	private static void executed(long elapsedNanos) {
+		SqlStatistics statistics = SqlStatistics.current();
+		if (statistics != null) {
+			statistics.executed(elapsedNanos);
+		}
+
+		PreparedStatementText prepared = PREPARED.get();
+		if (prepared.slowQueryLog != null) {
+			prepared.slowQueryLog.executed(prepared.sql, elapsedNanos);
+		}
+	}
+
+	private static class PreparedStatementText {
+		SlowQueryLog slowQueryLog;
+		String sql;
+	}
+}
@@ -0,0 +1,38 @@
+package me.whiteship.springrestapidemo.common;
+
+import lombok.Getter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Getter
+public class SqlStatistics {
+	private static final String ATTRIBUTE = SqlStatistics.class.getName();
+
+	private long statements;
+	private long rows;
+	private long nanos;
+
+	public static SqlStatistics start(RequestAttributes attributes) {
+		SqlStatistics statistics = new SqlStatistics();
+		attributes.setAttribute(ATTRIBUTE, statistics, RequestAttributes.SCOPE_REQUEST);
+		return statistics;
+	}
+
+	public static SqlStatistics of(RequestAttributes attributes) {
+		return (SqlStatistics) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	static SqlStatistics current() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes == null ? null : of(attributes);
+	}
+
+	void executed(long elapsedNanos) {
+		this.statements++;
+		this.nanos += elapsedNanos;
+	}
+
+	void fetched() {
+		this.rows++;
+	}
+}
@@ -0,0 +1,48 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.accounts.AccountAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AccountJwtAccessTokenConverter extends JwtAccessTokenConverter {
+	static final String ACCOUNT_ID = "account_id";
+
+	public AccountJwtAccessTokenConverter() {
+		DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+		accessTokenConverter.setUserTokenConverter(new AccountUserAuthenticationConverter());
+		setAccessTokenConverter(accessTokenConverter);
+	}
+
+	static class AccountUserAuthenticationConverter extends DefaultUserAuthenticationConverter {
+
+		@Override
+		public Map<String, ?> convertUserAuthentication(Authentication authentication) {
+			Map<String, Object> response = new LinkedHashMap<>(super.convertUserAuthentication(authentication));
+			if (authentication.getPrincipal() instanceof AccountAdapter) {
+				response.put(ACCOUNT_ID, ((AccountAdapter) authentication.getPrincipal()).getAccountId());
+			}
+			return response;
+		}
+
+		@Override
+		public Authentication extractAuthentication(Map<String, ?> map) {
+			Authentication authentication = super.extractAuthentication(map);
+			if (authentication == null || !map.containsKey(ACCOUNT_ID)) {
+				return authentication;
+			}
+
+			Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
+			Integer accountId = ((Number) map.get(ACCOUNT_ID)).intValue();
+			AccountAdapter principal = new AccountAdapter(accountId, authentication.getName(), "", authorities);
+			return new UsernamePasswordAuthenticationToken(principal, "N/A", authorities);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.accounts.AccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
+import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
+import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
+import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
+import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+/**
+ * Issues access tokens from {@code /oauth/token} with the password grant, through the same
+ * {@link DefaultTokenServices} the resource server reads them with.
+ */
+@Configuration
+@EnableAuthorizationServer
+public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	AuthenticationManager authenticationManager;
+
+	@Autowired
+	AccountService accountService;
+
+	@Autowired
+	DefaultTokenServices tokenServices;
+
+	@Value("${app.security.client-id:myApp}")
+	String clientId;
+
+	@Value("${app.security.client-secret:pass}")
+	String clientSecret;
+
+	@Override
+	public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
+		security.passwordEncoder(passwordEncoder);
+	}
+
+	@Override
+	public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
+		clients.inMemory()
+				.withClient(clientId)
+				.authorizedGrantTypes("password", "refresh_token")
+				.scopes("read", "write")
+				.resourceIds(ResourceServerConfig.RESOURCE_ID)
+				.secret(passwordEncoder.encode(clientSecret));
+	}
+
+	@Override
+	public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
+		endpoints.authenticationManager(authenticationManager)
+				.userDetailsService(accountService)
+				.tokenServices(tokenServices);
+	}
+}
@@ -0,0 +1,133 @@
+package me.whiteship.springrestapidemo.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+
+public class CachingJdbcTokenStore extends JdbcTokenStore {
+	private static final String UPDATE_ACCESS_TOKEN_EXPIRATION_SQL =
+			"update oauth_access_token set expiration = ? where token_id = ?";
+	private static final String UPDATE_REFRESH_TOKEN_EXPIRATION_SQL =
+			"update oauth_refresh_token set expiration = ? where token_id = ?";
+	private static final String DELETE_EXPIRED_ACCESS_TOKENS_SQL =
+			"delete from oauth_access_token where token_id in " +
+			"(select token_id from oauth_access_token where expiration < ? limit ?)";
+	private static final String DELETE_EXPIRED_REFRESH_TOKENS_SQL =
+			"delete from oauth_refresh_token where token_id in " +
+			"(select token_id from oauth_refresh_token where expiration < ? limit ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int sweepBatchSize;
+	private final Cache<String, OAuth2AccessToken> accessTokens;
+	private final Cache<String, OAuth2Authentication> authentications;
+
+	public CachingJdbcTokenStore(DataSource dataSource, long nearCacheMaximumSize, Duration nearCacheTimeToLive, int sweepBatchSize) {
+		super(dataSource);
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.sweepBatchSize = sweepBatchSize;
+		this.accessTokens = Caffeine.newBuilder()
+				.maximumSize(nearCacheMaximumSize)
+				.expireAfterWrite(nearCacheTimeToLive)
+				.build();
+		this.authentications = Caffeine.newBuilder()
+				.maximumSize(nearCacheMaximumSize)
+				.expireAfterWrite(nearCacheTimeToLive)
+				.build();
+	}
+
+	@Override
+	public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+		super.storeAccessToken(token, authentication);
+		if (token.getExpiration() != null) {
+			this.jdbcTemplate.update(UPDATE_ACCESS_TOKEN_EXPIRATION_SQL,
+					new Timestamp(token.getExpiration().getTime()), extractTokenKey(token.getValue()));
+		}
+		this.accessTokens.put(token.getValue(), token);
+		this.authentications.put(token.getValue(), authentication);
+	}
+
+	@Override
+	public OAuth2AccessToken readAccessToken(String tokenValue) {
+		OAuth2AccessToken token = this.accessTokens.getIfPresent(tokenValue);
+		if (token == null) {
+			token = super.readAccessToken(tokenValue);
+			if (token != null) {
+				this.accessTokens.put(tokenValue, token);
+			}
+		}
+		return token;
+	}
+
+	@Override
+	public OAuth2Authentication readAuthentication(String token) {
+		OAuth2Authentication authentication = this.authentications.getIfPresent(token);
+		if (authentication == null) {
+			authentication = super.readAuthentication(token);
+			if (authentication != null) {
+				this.authentications.put(token, authentication);
+			}
+		}
+		return authentication;
+	}
+
+	@Override
+	public void removeAccessToken(String tokenValue) {
+		super.removeAccessToken(tokenValue);
+		evict(tokenValue);
+	}
+
+	@Override
+	public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+		super.storeRefreshToken(refreshToken, authentication);
+		if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+			Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+			this.jdbcTemplate.update(UPDATE_REFRESH_TOKEN_EXPIRATION_SQL,
+					new Timestamp(expiration.getTime()), extractTokenKey(refreshToken.getValue()));
+		}
+	}
+
+	@Override
+	public void removeAccessTokenUsingRefreshToken(String refreshToken) {
+		super.removeAccessTokenUsingRefreshToken(refreshToken);
+		this.accessTokens.asMap().forEach((tokenValue, token) -> {
+			if (token.getRefreshToken() != null && refreshToken.equals(token.getRefreshToken().getValue())) {
+				evict(tokenValue);
+			}
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${app.security.token-store.sweep-interval:60000}")
+	public void sweepExpiredTokens() {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		deleteInBatches(DELETE_EXPIRED_ACCESS_TOKENS_SQL, now);
+		deleteInBatches(DELETE_EXPIRED_REFRESH_TOKENS_SQL, now);
+		this.accessTokens.asMap().forEach((tokenValue, token) -> {
+			if (token.isExpired()) {
+				evict(tokenValue);
+			}
+		});
+	}
+
+	private void deleteInBatches(String sql, Timestamp now) {
+		int deleted;
+		do {
+			deleted = this.jdbcTemplate.update(sql, now, this.sweepBatchSize);
+		} while (deleted == this.sweepBatchSize);
+	}
+
+	private void evict(String tokenValue) {
+		this.accessTokens.invalidate(tokenValue);
+		this.authentications.invalidate(tokenValue);
+	}
+}
@@ -0,0 +1,37 @@
+package me.whiteship.springrestapidemo.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.time.Duration;
+
+public class CachingJwtTokenStore extends JwtTokenStore {
+	private final Cache<String, OAuth2AccessToken> accessTokens;
+	private final Cache<String, OAuth2Authentication> authentications;
+
+	public CachingJwtTokenStore(JwtAccessTokenConverter jwtTokenEnhancer, long maximumSize, Duration timeToLive) {
+		super(jwtTokenEnhancer);
+		this.accessTokens = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive)
+				.build();
+		this.authentications = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive)
+				.build();
+	}
+
+	@Override
+	public OAuth2AccessToken readAccessToken(String tokenValue) {
+		return this.accessTokens.get(tokenValue, super::readAccessToken);
+	}
+
+	@Override
+	public OAuth2Authentication readAuthentication(String token) {
+		return this.authentications.get(token, super::readAuthentication);
+	}
+}
@@ -0,0 +1,83 @@
+package me.whiteship.springrestapidemo.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.whiteship.springrestapidemo.common.RepositoryMetricsPostProcessor;
+import me.whiteship.springrestapidemo.common.SlowQueryLog;
+import me.whiteship.springrestapidemo.common.SqlMetricsDataSource;
+import me.whiteship.springrestapidemo.common.SqlMetricsInterceptor;
+import me.whiteship.springrestapidemo.common.SqlMetricsSessionListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${app.sql-metrics.count-rows:false}")
+	boolean countRows;
+
+	@Bean
+	public static HibernatePropertiesCustomizer sqlMetricsHibernatePropertiesCustomizer(Environment environment) {
+		Duration slowThreshold = environment.getProperty("app.sql-log.slow-threshold", Duration.class);
+		double sampleRate = environment.getProperty("app.sql-log.sample-rate", Double.class, 0.0);
+		SlowQueryLog slowQueryLog = slowThreshold == null ? null : new SlowQueryLog(slowThreshold, sampleRate);
+		return properties -> {
+			properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlMetricsSessionListener.class.getName());
+			StatementInspector configured = statementInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+			properties.put(AvailableSettings.STATEMENT_INSPECTOR, configured == null
+					? SqlMetricsSessionListener.statementInspector(slowQueryLog)
+					: SqlMetricsSessionListener.statementInspector(slowQueryLog, configured));
+		};
+	}
+
+	private static StatementInspector statementInspector(Object setting) {
+		if (setting == null || setting instanceof StatementInspector) {
+			return (StatementInspector) setting;
+		}
+		Class<?> type = setting instanceof Class
+				? (Class<?>) setting
+				: ClassUtils.resolveClassName(setting.toString(), MetricsConfig.class.getClassLoader());
+		return (StatementInspector) BeanUtils.instantiateClass(type);
+	}
+
+	@Bean
+	@ConditionalOnProperty("app.sql-metrics.count-rows")
+	public static BeanPostProcessor sqlMetricsDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource && !(bean instanceof SqlMetricsDataSource)) {
+					return new SqlMetricsDataSource((DataSource) bean);
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new RepositoryMetricsPostProcessor(meterRegistry);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry, countRows));
+	}
+}
@@ -0,0 +1,70 @@
+package me.whiteship.springrestapidemo.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import me.whiteship.springrestapidemo.common.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas[0].jdbc-url")
+public class ReplicaDataSourceConfig {
+	private final List<HikariDataSource> primaryPools = new ArrayList<>();
+	private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+		Binder binder = Binder.get(environment);
+		HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+		if (primary.getPoolName() == null) {
+			primary.setPoolName("primary");
+		}
+
+		List<HikariDataSource> replicas = binder.bind("app.datasource.replicas", Bindable.listOf(HikariDataSource.class))
+				.orElse(Collections.emptyList());
+		for (int i = 0; i < replicas.size(); i++) {
+			HikariDataSource replica = replicas.get(i);
+			if (replica.getPoolName() == null) {
+				replica.setPoolName("replica-" + i);
+			}
+			replica.setReadOnly(true);
+		}
+
+		this.primaryPools.add(primary);
+		this.replicaPools.addAll(replicas);
+
+		Duration retryAfter = binder.bind("app.datasource.replica-retry-after", Duration.class).orElse(Duration.ofSeconds(10));
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, retryAfter));
+	}
+
+	@Bean
+	public MeterBinder replicaPoolMetrics() {
+		// the primary pool is found and instrumented by Spring Boot through the routing data source
+		return registry -> this.replicaPools.forEach(replica -> {
+			if (replica.getMetricsTrackerFactory() == null) {
+				replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			}
+		});
+	}
+
+	@PreDestroy
+	public void closePools() {
+		this.primaryPools.forEach(HikariDataSource::close);
+		this.replicaPools.forEach(HikariDataSource::close);
+	}
+}
@@ -0,0 +1,42 @@
+package me.whiteship.springrestapidemo.configs;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
+import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.error.OAuth2AccessDeniedHandler;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+/**
+ * Authorizes {@code /api/**} requests by their bearer token, looked up through {@link SecurityConfig#tokenStore()}.
+ */
+@Configuration
+@EnableResourceServer
+public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
+	static final String RESOURCE_ID = "event";
+
+	@Autowired
+	DefaultTokenServices tokenServices;
+
+	@Override
+	public void configure(ResourceServerSecurityConfigurer resources) throws Exception {
+		resources.resourceId(RESOURCE_ID)
+				.tokenServices(tokenServices);
+	}
+
+	@Override
+	public void configure(HttpSecurity http) throws Exception {
+		http.requestMatchers()
+				.mvcMatchers("/api/**")
+				.and()
+			.anonymous()
+				.and()
+			.authorizeRequests()
+				.anyRequest().authenticated()
+				.and()
+			.exceptionHandling()
+				.accessDeniedHandler(new OAuth2AccessDeniedHandler());
+	}
+}
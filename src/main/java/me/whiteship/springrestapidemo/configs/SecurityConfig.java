@@ -2,6 +2,7 @@ package me.whiteship.springrestapidemo.configs;
 
 import me.whiteship.springrestapidemo.accounts.AccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,8 +14,12 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
-import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -25,9 +30,61 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	@Autowired
 	PasswordEncoder passwordEncoder;
 
+	@Autowired
+	DataSource dataSource;
+
+	@Value("${app.security.token-store.near-cache.maximum-size:100000}")
+	long nearCacheMaximumSize;
+
+	@Value("${app.security.token-store.near-cache.time-to-live:30s}")
+	Duration nearCacheTimeToLive;
+
+	@Value("${app.security.token-store.sweep-batch-size:500}")
+	int sweepBatchSize;
+
+	@Value("${app.security.access-token-validity:10m}")
+	Duration accessTokenValidity;
+
+	@Value("${app.security.refresh-token-validity:6h}")
+	Duration refreshTokenValidity;
+
+	@Value("${app.security.token-mode:jdbc}")
+	String tokenMode;
+
+	@Value("${app.security.jwt.signing-key:}")
+	String jwtSigningKey;
+
 	@Bean
 	public TokenStore tokenStore() {
-		return new InMemoryTokenStore();
+		if ("jwt".equals(tokenMode)) {
+			return new CachingJwtTokenStore(accessTokenConverter(), nearCacheMaximumSize, nearCacheTimeToLive);
+		}
+		return new CachingJdbcTokenStore(dataSource, nearCacheMaximumSize, nearCacheTimeToLive, sweepBatchSize);
+	}
+
+	@Bean
+	public DefaultTokenServices tokenServices() {
+		DefaultTokenServices tokenServices = new DefaultTokenServices();
+		tokenServices.setTokenStore(tokenStore());
+		tokenServices.setSupportRefreshToken(true);
+		tokenServices.setAccessTokenValiditySeconds((int) accessTokenValidity.getSeconds());
+		tokenServices.setRefreshTokenValiditySeconds((int) refreshTokenValidity.getSeconds());
+		if ("jwt".equals(tokenMode)) {
+			tokenServices.setTokenEnhancer(accessTokenConverter());
+		}
+		return tokenServices;
+	}
+
+	@Bean
+	public JwtAccessTokenConverter accessTokenConverter() {
+		JwtAccessTokenConverter converter = new AccountJwtAccessTokenConverter();
+		if (!jwtSigningKey.isEmpty()) {
+			converter.setSigningKey(jwtSigningKey);
+		} else if ("jwt".equals(tokenMode)) {
+			// without a shared key every node would sign with its own random key and reject the others' tokens
+			throw new IllegalStateException("app.security.jwt.signing-key must be set when app.security.token-mode=jwt");
+		}
+		return converter;
 	}
 
 	@Bean
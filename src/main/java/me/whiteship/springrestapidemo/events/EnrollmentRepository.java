@@ -0,0 +1,16 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+	@Query("select e.event.id, e.account.id from Enrollment e")
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	Stream<Object[]> streamEventAndAccountIds();
+}
@@ -0,0 +1,257 @@
+package me.whiteship.springrestapidemo.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.events.EventRepository.SeatCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Takes enrollments without waiting for them to be written. Each node leases blocks of up to
+ * {@code app.enrollments.lease-size} seats with a guarded update of {@code Event.reservedSeats}, so several nodes
+ * together never sell more than {@code limitOfEnrollment}, and hands them out from memory; only taking a new
+ * block touches the event row. Unused seats are given back when the event stops taking enrollments or the node
+ * shuts down. The enrollment itself is queued and written in batches; when the node crashes, enrollments
+ * accepted but still queued are lost and the seats of its lease stay reserved. Until {@link EventIndexRebuilder}
+ * restored the counts at startup {@link #enroll} answers {@link SeatReservation#NOT_READY}.
+ */
+@Component
+public class EnrollmentService implements MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Value("${app.enrollments.batch-size:${spring.jpa.properties.hibernate.jdbc.batch_size:50}}")
+	int batchSize;
+
+	@Value("${app.enrollments.lease-size:20}")
+	int leaseSize;
+
+	private final Map<Integer, EventSeats> seats = new ConcurrentHashMap<>();
+	private final BlockingQueue<PendingEnrollment> pending = new LinkedBlockingQueue<>();
+	private final ThreadPoolTaskExecutor writer = new ThreadPoolTaskExecutor();
+	private final AtomicLong persisted = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private volatile boolean running = true;
+	private volatile boolean ready;
+
+	@PostConstruct
+	public void startWriter() {
+		writer.setCorePoolSize(1);
+		writer.setMaxPoolSize(1);
+		writer.setThreadNamePrefix("enrollment-writer-");
+		writer.setWaitForTasksToCompleteOnShutdown(true);
+		writer.setAwaitTerminationSeconds(30);
+		writer.initialize();
+		writer.execute(this::drain);
+	}
+
+	@PreDestroy
+	public void stopWriter() {
+		running = false;
+		writer.shutdown();
+		this.seats.forEach(this::returnLease);
+	}
+
+	void restore(Event event) {
+		seatsOf(event).restore(event.getReservedSeats());
+	}
+
+	void restoreEnrollments() {
+		try (Stream<Object[]> rows = this.enrollmentRepository.streamEventAndAccountIds()) {
+			rows.forEach(row -> {
+				EventSeats eventSeats = this.seats.get((Integer) row[0]);
+				if (eventSeats != null) {
+					eventSeats.restoreAccount((Integer) row[1]);
+				}
+			});
+		}
+	}
+
+	void loaded() {
+		this.ready = true;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void eventSaved(EventSaved eventSaved) {
+		Event event = eventSaved.getEvent();
+		EventSeats eventSeats = this.seats.computeIfAbsent(event.getId(), id -> new EventSeats());
+		if (eventSeats.update(event)) {
+			returnLease(event.getId(), eventSeats);
+		}
+	}
+
+	public SeatReservation enroll(Integer eventId, Integer accountId) {
+		if (!this.ready) {
+			return SeatReservation.NOT_READY;
+		}
+		EventSeats eventSeats = this.seats.get(eventId);
+		if (eventSeats == null) {
+			return SeatReservation.NOT_FOUND;
+		}
+
+		SeatReservation reservation = eventSeats.reserve(accountId, leasing -> lease(eventId, leasing));
+		if (reservation == SeatReservation.RESERVED) {
+			this.pending.add(new PendingEnrollment(eventId, accountId, LocalDateTime.now()));
+		}
+		return reservation;
+	}
+
+	public int remainingSeats(Integer eventId) {
+		EventSeats eventSeats = this.seats.get(eventId);
+		return eventSeats == null ? 0 : eventSeats.remaining();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("enrollments.pending", pending, BlockingQueue::size)
+				.description("Reserved enrollments waiting to be written")
+				.register(registry);
+		FunctionCounter.builder("enrollments.persisted", persisted, AtomicLong::doubleValue)
+				.register(registry);
+		FunctionCounter.builder("enrollments.failed", failed, AtomicLong::doubleValue)
+				.description("Reserved enrollments that could not be written and gave their seat back")
+				.register(registry);
+	}
+
+	private void lease(Integer eventId, EventSeats eventSeats) {
+		// another node leasing between the read and the update makes the update miss, so read again
+		while (true) {
+			Optional<SeatCount> seatCount = this.eventRepository.findSeatCountById(eventId);
+			if (!seatCount.isPresent()) {
+				eventSeats.leased(0, 0);
+				return;
+			}
+			int reserved = seatCount.get().getReservedSeats();
+			int seats = Math.min(this.leaseSize, seatCount.get().getLimitOfEnrollment() - reserved);
+			if (seats <= 0) {
+				eventSeats.leased(0, reserved);
+				return;
+			}
+			if (this.eventRepository.leaseSeats(eventId, reserved, seats) > 0) {
+				eventSeats.leased(seats, reserved + seats);
+				return;
+			}
+		}
+	}
+
+	private void returnLease(Integer eventId, EventSeats eventSeats) {
+		int seats = eventSeats.returnLease();
+		if (seats == 0) {
+			return;
+		}
+		try {
+			this.eventRepository.returnSeats(eventId, seats);
+		} catch (RuntimeException e) {
+			log.warn("Could not give back {} leased seats of event {}: {}", seats, eventId, e.toString());
+		}
+	}
+
+	private EventSeats seatsOf(Event event) {
+		EventSeats eventSeats = this.seats.computeIfAbsent(event.getId(), id -> new EventSeats());
+		eventSeats.update(event);
+		return eventSeats;
+	}
+
+	private void drain() {
+		List<PendingEnrollment> batch = new ArrayList<>(batchSize);
+		while (running || !pending.isEmpty()) {
+			try {
+				PendingEnrollment first = pending.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				pending.drainTo(batch, batchSize - 1);
+				persist(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void persist(List<PendingEnrollment> batch) {
+		try {
+			this.transactionTemplate.execute(status -> {
+				this.enrollmentRepository.saveAll(batch.stream().map(this::toEnrollment).collect(Collectors.toList()));
+				this.enrollmentRepository.flush();
+				return null;
+			});
+			persisted.addAndGet(batch.size());
+		} catch (RuntimeException e) {
+			if (batch.size() > 1) {
+				batch.forEach(enrollment -> persist(Collections.singletonList(enrollment)));
+				return;
+			}
+
+			PendingEnrollment enrollment = batch.get(0);
+			log.warn("Releasing seat of account {} in event {}: {}", enrollment.getAccountId(), enrollment.getEventId(), e.toString());
+			release(enrollment);
+			failed.incrementAndGet();
+		}
+	}
+
+	private void release(PendingEnrollment enrollment) {
+		EventSeats eventSeats = this.seats.get(enrollment.getEventId());
+		if (eventSeats != null) {
+			eventSeats.release(enrollment.getAccountId());
+		}
+	}
+
+	private Enrollment toEnrollment(PendingEnrollment enrollment) {
+		return Enrollment.builder()
+				.event(this.entityManager.getReference(Event.class, enrollment.getEventId()))
+				.account(this.entityManager.getReference(Account.class, enrollment.getAccountId()))
+				.enrolledAt(enrollment.getEnrolledAt())
+				.build();
+	}
+
+	@Getter @RequiredArgsConstructor
+	private static class PendingEnrollment {
+		private final Integer eventId;
+		private final Integer accountId;
+		private final LocalDateTime enrolledAt;
+	}
+}
@@ -1,18 +1,37 @@
 package me.whiteship.springrestapidemo.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import me.whiteship.springrestapidemo.accounts.Account;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.DomainEvents;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 
 @Builder
 @AllArgsConstructor @NoArgsConstructor @Getter @Setter @EqualsAndHashCode(of="id")
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime"),
+		@Index(name = "idx_event_manager_begin_event", columnList = "manager_id, beginEventDateTime"),
+		@Index(name = "idx_event_begin_event", columnList = "beginEventDateTime"),
+		@Index(name = "idx_event_close_enrollment", columnList = "closeEnrollmentDateTime"),
+		@Index(name = "idx_event_base_price", columnList = "basePrice")
+})
+@DynamicUpdate
 public class Event {
-	@Id @GeneratedValue
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+	@SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
 	private Integer id;
 
+	@Version
+	@JsonIgnore
+	private Integer version;
+
 	private String name;
 	private String description;
 	private LocalDateTime beginEnrollmentDateTime;
@@ -24,17 +43,27 @@ public class Event {
 	private int maxPrice;
 	private int limitOfEnrollment;
 
+	// only changed by the guarded updates of EventRepository, so saving an entity never writes back a stale count
+	@JsonIgnore
+	@Column(updatable = false)
+	private int reservedSeats;
+
 	private boolean offline;
 	private boolean free;
 
 	@Enumerated(EnumType.STRING)
 	private EventStatus eventStatus = EventStatus.DRAFT;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	private Account manager;
 
 	public void update() {
 		this.free = this.basePrice == 0 && this.maxPrice == 0;
 		this.offline = this.location != null && !this.location.trim().isEmpty();
 	}
+
+	@DomainEvents
+	Collection<EventSaved> saved() {
+		return Collections.singleton(new EventSaved(this));
+	}
 }
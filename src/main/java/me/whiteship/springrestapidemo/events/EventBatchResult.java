@@ -0,0 +1,27 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.validation.Errors;
+
+@Getter @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventBatchResult {
+	private int index;
+	private Integer id;
+	private Status status;
+	private Errors errors;
+
+	public enum Status {
+		CREATED, INVALID
+	}
+
+	public static EventBatchResult created(int index, Integer id) {
+		return new EventBatchResult(index, id, Status.CREATED, null);
+	}
+
+	public static EventBatchResult invalid(int index, Errors errors) {
+		return new EventBatchResult(index, null, Status.INVALID, errors);
+	}
+}
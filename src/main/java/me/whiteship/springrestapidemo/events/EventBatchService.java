@@ -0,0 +1,68 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class EventBatchService {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventMapper eventMapper;
+
+	@Autowired
+	EventValidator eventValidator;
+
+	private final SpringValidatorAdapter beanValidator;
+
+	public EventBatchService(Validator validator) {
+		this.beanValidator = new SpringValidatorAdapter(validator);
+	}
+
+	public Errors validate(EventDto eventDto) {
+		Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+		if (eventDto == null) {
+			errors.reject("nullEvent", "Event must not be null");
+			return errors;
+		}
+		beanValidator.validate(eventDto, errors);
+		if (!errors.hasErrors()) {
+			eventValidator.validate(eventDto, errors);
+		}
+		return errors;
+	}
+
+	@Transactional
+	public List<EventBatchResult> createEvents(List<EventDto> eventDtos) {
+		List<EventBatchResult> results = new ArrayList<>(eventDtos.size());
+		Map<Integer, Event> validEvents = new LinkedHashMap<>();
+
+		for (int i = 0; i < eventDtos.size(); i++) {
+			Errors errors = validate(eventDtos.get(i));
+			if (errors.hasErrors()) {
+				results.add(EventBatchResult.invalid(i, errors));
+				continue;
+			}
+
+			Event event = eventMapper.toEvent(eventDtos.get(i));
+			event.update();
+			validEvents.put(i, event);
+			results.add(null);
+		}
+
+		eventRepository.saveAll(validEvents.values());
+		validEvents.forEach((i, event) -> results.set(i, EventBatchResult.created(i, event.getId())));
+		return results;
+	}
+}
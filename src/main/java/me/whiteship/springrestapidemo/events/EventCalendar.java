@@ -0,0 +1,60 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.IntervalTree;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Event and enrollment periods held in memory, loaded by {@link EventIndexRebuilder} when the application is ready
+ * and kept current by {@link EventSaved}; {@link #isReady()} tells whether the load is done. The load runs while
+ * requests are already served, so every entry is put only if its version is not older than the one already held;
+ * a row streamed before a concurrent save can not undo it.
+ * <p>
+ * Only saves made by this node reach the calendar. Events written by other nodes show up after the next restart.
+ */
+@Component
+public class EventCalendar {
+	private final IntervalTree<LocalDateTime, EventCalendarEntry> eventPeriods = new IntervalTree<>();
+	private final IntervalTree<LocalDateTime, EventCalendarEntry> enrollmentPeriods = new IntervalTree<>();
+	private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void eventSaved(EventSaved eventSaved) {
+		put(eventSaved.getEvent());
+	}
+
+	public boolean isReady() {
+		return this.ready;
+	}
+
+	public List<EventCalendarEntry> eventsBetween(LocalDateTime from, LocalDateTime to) {
+		return this.eventPeriods.overlapping(from, to);
+	}
+
+	public List<EventCalendarEntry> enrollmentOpenAt(LocalDateTime at) {
+		return this.enrollmentPeriods.overlapping(at, at);
+	}
+
+	void loaded() {
+		this.ready = true;
+	}
+
+	void put(Event event) {
+		int version = event.getVersion() == null ? Integer.MIN_VALUE : event.getVersion();
+		this.versions.compute(event.getId(), (id, held) -> {
+			if (held != null && held > version) {
+				return held;
+			}
+			EventCalendarEntry entry = EventCalendarEntry.of(event);
+			this.eventPeriods.put(id, event.getBeginEventDateTime(), event.getEndEventDateTime(), entry);
+			this.enrollmentPeriods.put(id, event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime(), entry);
+			return version;
+		});
+	}
+}
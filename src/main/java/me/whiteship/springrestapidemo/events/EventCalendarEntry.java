@@ -0,0 +1,25 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.Value;
+import org.springframework.hateoas.core.Relation;
+
+import java.time.LocalDateTime;
+
+@Value
+@Relation(collectionRelation = "eventList")
+public class EventCalendarEntry {
+	Integer id;
+	String name;
+	EventStatus eventStatus;
+	String location;
+	LocalDateTime beginEnrollmentDateTime;
+	LocalDateTime closeEnrollmentDateTime;
+	LocalDateTime beginEventDateTime;
+	LocalDateTime endEventDateTime;
+
+	public static EventCalendarEntry of(Event event) {
+		return new EventCalendarEntry(event.getId(), event.getName(), event.getEventStatus(), event.getLocation(),
+				event.getBeginEnrollmentDateTime(), event.getCloseEnrollmentDateTime(),
+				event.getBeginEventDateTime(), event.getEndEventDateTime());
+	}
+}
@@ -1,26 +1,57 @@
 package me.whiteship.springrestapidemo.events;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import me.whiteship.springrestapidemo.accounts.AccountAdapter;
+import me.whiteship.springrestapidemo.common.ApiLinks;
+import me.whiteship.springrestapidemo.common.DbExecutor;
 import me.whiteship.springrestapidemo.common.ErrorsResource;
-import org.modelmapper.ModelMapper;
+import me.whiteship.springrestapidemo.common.ReplicaRoutingDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
-import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.hateoas.Resources;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 
 @Controller
 @RequestMapping(value ="/api/events", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
@@ -29,63 +60,321 @@ public class EventController {
 	EventRepository eventRepository;
 
 	@Autowired
-	ModelMapper modelMapper;
+	EventMapper eventMapper;
 
 	@Autowired
 	EventValidator eventValidator;
 
+	@Autowired
+	EventBatchService eventBatchService;
+
+	@Autowired
+	EventVersionCache eventVersionCache;
+
+	@Autowired
+	EventExporter eventExporter;
+
+	@Autowired
+	EventImporter eventImporter;
+
+	@Autowired
+	DbExecutor dbExecutor;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	EventCalendar eventCalendar;
+
+	@Autowired
+	EventTextIndex eventTextIndex;
+
+	@Autowired
+	EnrollmentService enrollmentService;
+
+	@Value("${app.events.batch.max-size:1000}")
+	int maxBatchSize;
+
 	@PostMapping
-	public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto, Errors errors) {
+	public CompletableFuture<ResponseEntity> createEvent(@RequestBody @Valid EventDto eventDto, Errors errors) {
 		if (errors.hasErrors()) {
-			return badRequest(errors);
+			return completedFuture(badRequest(errors));
 		}
 
 		eventValidator.validate(eventDto, errors);
 
 		if (errors.hasErrors()) {
-			return badRequest(errors);
+			return completedFuture(badRequest(errors));
 		}
 
-		Event event = modelMapper.map(eventDto, Event.class);
+		Event event = eventMapper.toEvent(eventDto);
 		event.update();
-		Event newEvent = eventRepository.save(event);
-		ControllerLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-		URI createdUri = selfLinkBuilder.toUri();
-		EventResource eventResource = new EventResource(newEvent);
-		eventResource.add(linkTo(EventController.class).withRel("query-events"));
-		eventResource.add(selfLinkBuilder.withRel("update-event"));
-		eventResource.add(new Link("/docs/index.html#resources-events-create").withRel("profile"));
-		return ResponseEntity.created(createdUri).body(eventResource);
+		return this.dbExecutor.supply(() -> {
+			Event newEvent = eventRepository.save(event);
+			URI createdUri = ApiLinks.eventUri(newEvent.getId());
+			this.eventVersionCache.put(newEvent);
+			EventResource eventResource = new EventResource(newEvent);
+			eventResource.add(ApiLinks.events("query-events"));
+			eventResource.add(ApiLinks.event(newEvent.getId(), "update-event"));
+			eventResource.add(ApiLinks.profile("resources-events-create"));
+			return ResponseEntity.created(createdUri).eTag(EventVersionCache.eTag(newEvent.getVersion())).body(eventResource);
+		});
+	}
+
+	@PostMapping("/batch")
+	public CompletableFuture<ResponseEntity> createEvents(@RequestBody List<EventDto> eventDtos) {
+		if (eventDtos.size() > this.maxBatchSize) {
+			Errors errors = new MapBindingResult(new HashMap<>(), "eventDtos");
+			errors.reject("tooManyEvents", "Can not create more than " + this.maxBatchSize + " events in one batch");
+			return completedFuture(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(new ErrorsResource(errors)));
+		}
+
+		return this.dbExecutor.supply(() -> {
+			List<EventBatchResult> results = this.eventBatchService.createEvents(eventDtos);
+			return ResponseEntity.ok(results);
+		});
+	}
+
+	@PostMapping(value = "/import",
+			consumes = {EventExporter.APPLICATION_NDJSON_VALUE, EventImporter.TEXT_CSV_VALUE},
+			produces = EventExporter.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> importEvents(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+	                                                          InputStream inputStream) {
+		StreamingResponseBody body = outputStream -> this.eventImporter.importEvents(inputStream, contentType, outputStream);
+		return ResponseEntity.ok()
+				.contentType(EventExporter.APPLICATION_NDJSON_UTF8)
+				.body(body);
 	}
 
 	@GetMapping
-	public ResponseEntity queryEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler) {
-		Page<Event> page = this.eventRepository.findAll(pageable);
-		PagedResources<Resource<Event>> pagedResources = assembler.toResource(page, e -> new EventResource(e));
-		pagedResources.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
-		return ResponseEntity.ok(pagedResources);
+	public CompletableFuture<ResponseEntity> queryEvents(EventSearch eventSearch, Errors errors, Pageable pageable,
+	                                                     PagedResourcesAssembler<Event> assembler) {
+		if (errors.hasErrors()) {
+			return completedFuture(badRequest(errors));
+		}
+
+		return this.dbExecutor.supplyReadOnly(() -> {
+			Page<Event> page = this.eventRepository.findAll(eventSearch.toSpecification(), pageable);
+			PagedResources<Resource<Event>> pagedResources = assembler.toResource(page, e -> new EventResource(e));
+			pagedResources.add(ApiLinks.profile("resources-events-list"));
+			return ResponseEntity.ok(pagedResources);
+		});
+	}
+
+	@GetMapping(value = "/export", produces = EventExporter.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportEvents() {
+		StreamingResponseBody body = outputStream -> this.eventExporter.export(outputStream);
+		return ResponseEntity.ok()
+				.contentType(EventExporter.APPLICATION_NDJSON_UTF8)
+				.body(body);
+	}
+
+	@GetMapping(params = {"fields", "!after", "!before"})
+	public CompletableFuture<ResponseEntity> queryEventFields(@RequestParam String fields, EventSearch eventSearch, Errors searchErrors,
+	                                                          Pageable pageable, PagedResourcesAssembler<Map<String, Object>> assembler) {
+		if (searchErrors.hasErrors()) {
+			return completedFuture(badRequest(searchErrors));
+		}
+
+		List<String> fieldNames = Arrays.stream(fields.split(","))
+				.map(String::trim)
+				.filter(field -> !field.isEmpty())
+				.distinct()
+				.collect(Collectors.toList());
+		Errors errors = new MapBindingResult(new HashMap<>(), "fields");
+		fieldNames.stream()
+				.filter(field -> !EventProjectionResource.isProjectable(field))
+				.forEach(field -> errors.reject("wrongField", "Can not select " + field + " from events"));
+		if (errors.hasErrors()) {
+			return completedFuture(badRequest(errors));
+		}
+
+		return this.dbExecutor.supplyReadOnly(() -> {
+			Page<Map<String, Object>> page = this.eventRepository.findAllProjected(eventSearch.toSpecification(), fieldNames, pageable);
+			PagedResources<EventProjectionResource> pagedResources = assembler.toResource(page, EventProjectionResource::new);
+			pagedResources.add(ApiLinks.profile("resources-events-list"));
+			return ResponseEntity.ok(pagedResources);
+		});
+	}
+
+	@GetMapping(params = "after")
+	public CompletableFuture<ResponseEntity> queryEventsAfter(@RequestParam String after, EventSearch eventSearch, Errors errors,
+	                                                          Pageable pageable) {
+		return queryEventsByCursor(after, true, eventSearch, errors, pageable);
+	}
+
+	@GetMapping(params = "before")
+	public CompletableFuture<ResponseEntity> queryEventsBefore(@RequestParam String before, EventSearch eventSearch, Errors errors,
+	                                                           Pageable pageable) {
+		return queryEventsByCursor(before, false, eventSearch, errors, pageable);
+	}
+
+	private CompletableFuture<ResponseEntity> queryEventsByCursor(String encodedCursor, boolean forward, EventSearch eventSearch,
+	                                                              Errors searchErrors, Pageable pageable) {
+		if (searchErrors.hasErrors()) {
+			return completedFuture(badRequest(searchErrors));
+		}
+
+		Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+		Errors errors = new MapBindingResult(new HashMap<>(), "cursor");
+		EventCursor cursor = null;
+		try {
+			if (!encodedCursor.isEmpty()) {
+				cursor = EventCursor.decode(encodedCursor);
+			}
+		} catch (IllegalArgumentException e) {
+			errors.reject("wrongCursor", e.getMessage());
+		}
+		if (!EventCursor.isSortable(order.getProperty())
+				|| (cursor != null && !cursor.getProperty().equals(order.getProperty()))) {
+			errors.reject("wrongSort", "Can not page events by " + order.getProperty() + " with this cursor");
+		}
+		if (errors.hasErrors()) {
+			return completedFuture(badRequest(errors));
+		}
+
+		EventCursor after = cursor;
+		Specification<Event> spec = eventSearch.toSpecification();
+		return this.dbExecutor.supplyReadOnly(() -> {
+			int size = pageable.getPageSize();
+			List<Event> events = forward
+					? this.eventRepository.findAfter(spec, after, order, size + 1)
+					: this.eventRepository.findBefore(spec, after, order, size + 1);
+			return cursorPage(events, after, forward, order, size);
+		});
+	}
+
+	private ResponseEntity cursorPage(List<Event> events, EventCursor cursor, boolean forward, Sort.Order order, int size) {
+		boolean hasMore = events.size() > size;
+		if (hasMore) {
+			events = forward ? events.subList(0, size) : events.subList(1, events.size());
+		}
+
+		Resources<Resource<Event>> resources = new Resources<>(events.stream()
+				.map(EventResource::new)
+				.collect(Collectors.toList()));
+		resources.add(new Link(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+		resources.add(cursorLink("after", "", Link.REL_FIRST));
+		if (!events.isEmpty()) {
+			if (forward ? hasMore : cursor != null) {
+				resources.add(cursorLink("after", EventCursor.of(events.get(events.size() - 1), order.getProperty()).encode(), Link.REL_NEXT));
+			}
+			if (forward ? cursor != null : hasMore) {
+				resources.add(cursorLink("before", EventCursor.of(events.get(0), order.getProperty()).encode(), Link.REL_PREVIOUS));
+			}
+		}
+		resources.add(cursorLink("before", "", Link.REL_LAST));
+		resources.add(ApiLinks.profile("resources-events-list"));
+		return ResponseEntity.ok(resources);
+	}
+
+	private Link cursorLink(String param, String cursor, String rel) {
+		String href = ServletUriComponentsBuilder.fromCurrentRequest()
+				.replaceQueryParam("page")
+				.replaceQueryParam("after")
+				.replaceQueryParam("before")
+				.replaceQueryParam(param, cursor)
+				.toUriString();
+		return new Link(href, rel);
+	}
+
+	@GetMapping(value = "/calendar", params = {"from", "to"})
+	public ResponseEntity queryCalendar(@RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+	                                    @RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+		if (!this.eventCalendar.isReady()) {
+			return retryLater();
+		}
+		return calendar(this.eventCalendar.eventsBetween(from, to));
+	}
+
+	@GetMapping(value = "/calendar", params = "enrollmentOpenAt")
+	public ResponseEntity queryEnrollmentCalendar(@RequestParam @DateTimeFormat(iso = DATE_TIME) LocalDateTime enrollmentOpenAt) {
+		if (!this.eventCalendar.isReady()) {
+			return retryLater();
+		}
+		return calendar(this.eventCalendar.enrollmentOpenAt(enrollmentOpenAt));
+	}
+
+	private ResponseEntity calendar(List<EventCalendarEntry> entries) {
+		Resources<Resource<EventCalendarEntry>> resources = new Resources<>(entries.stream()
+				.map(entry -> new Resource<>(entry, ApiLinks.event(entry.getId(), Link.REL_SELF)))
+				.collect(Collectors.toList()));
+		resources.add(new Link(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+		resources.add(ApiLinks.profile("resources-events-calendar"));
+		return ResponseEntity.ok(resources);
+	}
+
+	@GetMapping(value = "/search", params = "q")
+	public CompletableFuture<ResponseEntity> searchEvents(@RequestParam String q,
+	                                                      @RequestParam(defaultValue = "20") int size) {
+		if (!this.eventTextIndex.isReady()) {
+			return completedFuture(retryLater());
+		}
+		List<Integer> ids = this.eventTextIndex.search(q, Math.min(Math.max(size, 1), 100));
+		if (ids.isEmpty()) {
+			return completedFuture(searchResult(Collections.emptyList()));
+		}
+
+		return this.dbExecutor.supplyReadOnly(() -> {
+			Map<Integer, Event> events = this.eventRepository.findByIdIn(ids).stream()
+					.collect(Collectors.toMap(Event::getId, Function.identity()));
+			return searchResult(ids.stream()
+					.map(events::get)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList()));
+		});
+	}
+
+	private ResponseEntity searchResult(List<Event> events) {
+		Resources<Resource<Event>> resources = new Resources<>(events.stream()
+				.map(EventResource::new)
+				.collect(Collectors.toList()));
+		resources.add(new Link(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+		resources.add(ApiLinks.profile("resources-events-search"));
+		return ResponseEntity.ok(resources);
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity getEvent(@PathVariable Integer id) {
-		Optional<Event> optionalEvent = this.eventRepository.findById(id);
-		if (!optionalEvent.isPresent()) {
-			return ResponseEntity.notFound().build();
+	public CompletableFuture<ResponseEntity> getEvent(@PathVariable Integer id,
+	                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		Integer cachedVersion = this.eventVersionCache.get(id);
+		if (EventVersionCache.matches(ifNoneMatch, cachedVersion)) {
+			return completedFuture(notModified(cachedVersion));
 		}
 
-		Event event = optionalEvent.get();
-		EventResource eventResource = new EventResource(event);
-		eventResource.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
-		return ResponseEntity.ok(eventResource);
+		return this.dbExecutor.supplyReadOnly(() -> {
+			Optional<Event> optionalEvent = this.eventRepository.findById(id);
+			if (!optionalEvent.isPresent()) {
+				return ResponseEntity.notFound().build();
+			}
+
+			Event event = optionalEvent.get();
+			// a lagging replica could cache a version the primary already replaced or evicted
+			if (!ReplicaRoutingDataSource.isServedByReplica()) {
+				this.eventVersionCache.put(event);
+			}
+			if (EventVersionCache.matches(ifNoneMatch, event.getVersion())) {
+				return notModified(event.getVersion());
+			}
+
+			EventResource eventResource = new EventResource(event);
+			eventResource.add(ApiLinks.profile("resources-events-get"));
+			return ResponseEntity.ok().eTag(EventVersionCache.eTag(event.getVersion())).body(eventResource);
+		});
 	}
 
 	@PutMapping("/{id}")
-	public ResponseEntity updateEvent(@PathVariable Integer id,
-	                                  @RequestBody @Valid EventDto eventDto,
-	                                  Errors errors) {
+	public CompletableFuture<ResponseEntity> updateEvent(@PathVariable Integer id,
+	                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+	                                                     @RequestBody @Valid EventDto eventDto,
+	                                                     Errors errors) {
 		if (errors.hasErrors()) {
-			return badRequest(errors);
+			return completedFuture(badRequest(errors));
 		}
+		return this.dbExecutor.supply(() -> updateExistingEvent(id, ifMatch, eventDto, errors));
+	}
+
+	private ResponseEntity updateExistingEvent(Integer id, String ifMatch, EventDto eventDto, Errors errors) {
 		Optional<Event> optionalEvent = this.eventRepository.findById(id);
 		if (!optionalEvent.isPresent()) {
 			return ResponseEntity.notFound().build();
@@ -97,17 +386,107 @@ public class EventController {
 		}
 
 		Event existingEvent = optionalEvent.get();
-		this.modelMapper.map(eventDto, existingEvent);
-		Event savedEvent = this.modelMapper.map(existingEvent, Event.class);
-		savedEvent.update();
+		if (ifMatch != null && !EventVersionCache.matchesStrongly(ifMatch, existingEvent.getVersion())) {
+			return preconditionFailed(existingEvent.getId());
+		}
+		return saveUpdatedEvent(existingEvent, eventDto);
+	}
+
+	@PatchMapping("/{id}")
+	public CompletableFuture<ResponseEntity> patchEvent(@PathVariable Integer id,
+	                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+	                                                    @RequestBody ObjectNode patch) {
+		return this.dbExecutor.supply(() -> patchExistingEvent(id, ifMatch, patch));
+	}
+
+	private ResponseEntity patchExistingEvent(Integer id, String ifMatch, ObjectNode patch) {
+		Optional<Event> optionalEvent = this.eventRepository.findById(id);
+		if (!optionalEvent.isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		Event existingEvent = optionalEvent.get();
+		if (ifMatch != null && !EventVersionCache.matchesStrongly(ifMatch, existingEvent.getVersion())) {
+			return preconditionFailed(existingEvent.getId());
+		}
+
+		EventDto eventDto;
+		try {
+			eventDto = this.objectMapper.readerForUpdating(this.eventMapper.toDto(existingEvent)).readValue(patch);
+		} catch (IOException e) {
+			Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+			errors.reject("wrongPatch", e.getMessage());
+			return badRequest(errors);
+		}
+		Errors errors = this.eventBatchService.validate(eventDto);
+		if (errors.hasErrors()) {
+			return badRequest(errors);
+		}
+
+		return saveUpdatedEvent(existingEvent, eventDto);
+	}
 
-		Event newEvent = this.eventRepository.save(savedEvent);
+	private ResponseEntity saveUpdatedEvent(Event existingEvent, EventDto eventDto) {
+		this.eventMapper.update(eventDto, existingEvent);
+		existingEvent.update();
+
+		Event newEvent;
+		try {
+			newEvent = this.eventRepository.save(existingEvent);
+		} catch (ObjectOptimisticLockingFailureException e) {
+			return preconditionFailed(existingEvent.getId());
+		}
+		this.eventVersionCache.put(newEvent);
 
 		EventResource eventResource = new EventResource(newEvent);
-		eventResource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
-		return ResponseEntity.ok(eventResource);
+		eventResource.add(ApiLinks.profile("resources-events-update"));
+		return ResponseEntity.ok().eTag(EventVersionCache.eTag(newEvent.getVersion())).body(eventResource);
+	}
+
+	@PostMapping("/{id}/enrollments")
+	public CompletableFuture<ResponseEntity> enroll(@PathVariable Integer id, @AuthenticationPrincipal AccountAdapter currentUser) {
+		if (currentUser == null) {
+			return completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+		}
+
+		return this.dbExecutor.supply(() -> {
+			SeatReservation reservation = this.enrollmentService.enroll(id, currentUser.getAccountId());
+			if (reservation == SeatReservation.NOT_FOUND) {
+				return ResponseEntity.notFound().build();
+			}
+			if (reservation == SeatReservation.NOT_READY) {
+				return retryLater();
+			}
+			if (reservation != SeatReservation.RESERVED) {
+				Errors errors = new MapBindingResult(new HashMap<>(), "enrollment");
+				errors.reject(reservation.name(), "Can not enroll in event " + id + ": " + reservation);
+				return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorsResource(errors));
+			}
+
+			EventEnrollment enrollment = new EventEnrollment(id, currentUser.getAccountId(), this.enrollmentService.remainingSeats(id));
+			Resource<EventEnrollment> resource = new Resource<>(enrollment, ApiLinks.event(id, "event"));
+			resource.add(ApiLinks.profile("resources-events-enroll"));
+			return ResponseEntity.status(HttpStatus.ACCEPTED).body(resource);
+		});
 	}
 
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity dbExecutorSaturated() {
+		return retryLater();
+	}
+
+	private ResponseEntity retryLater() {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+	}
+
+	private ResponseEntity notModified(Integer version) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EventVersionCache.eTag(version)).build();
+	}
+
+	private ResponseEntity preconditionFailed(Integer id) {
+		this.eventVersionCache.evict(id);
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+	}
 
 	private ResponseEntity badRequest(Errors errors) {
 		return ResponseEntity.badRequest().body(new ErrorsResource(errors));
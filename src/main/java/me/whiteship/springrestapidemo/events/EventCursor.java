@@ -0,0 +1,81 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Getter @EqualsAndHashCode
+public class EventCursor {
+	private static final Map<String, Function<Event, Object>> SORT_KEYS = new HashMap<>();
+	private static final Map<String, Function<String, Object>> PARSERS = new HashMap<>();
+
+	static {
+		sortKey("id", Event::getId, Integer::valueOf);
+		sortKey("name", Event::getName, value -> value);
+		sortKey("beginEnrollmentDateTime", Event::getBeginEnrollmentDateTime, LocalDateTime::parse);
+		sortKey("closeEnrollmentDateTime", Event::getCloseEnrollmentDateTime, LocalDateTime::parse);
+		sortKey("beginEventDateTime", Event::getBeginEventDateTime, LocalDateTime::parse);
+		sortKey("endEventDateTime", Event::getEndEventDateTime, LocalDateTime::parse);
+		sortKey("basePrice", Event::getBasePrice, Integer::valueOf);
+		sortKey("maxPrice", Event::getMaxPrice, Integer::valueOf);
+		sortKey("limitOfEnrollment", Event::getLimitOfEnrollment, Integer::valueOf);
+	}
+
+	private final String property;
+	private final Object value;
+	private final Integer id;
+
+	private EventCursor(String property, Object value, Integer id) {
+		this.property = property;
+		this.value = value;
+		this.id = id;
+	}
+
+	private static void sortKey(String property, Function<Event, Object> getter, Function<String, Object> parser) {
+		SORT_KEYS.put(property, getter);
+		PARSERS.put(property, parser);
+	}
+
+	public static boolean isSortable(String property) {
+		return SORT_KEYS.containsKey(property);
+	}
+
+	public static EventCursor of(Event event, String property) {
+		if (!isSortable(property)) {
+			throw new IllegalArgumentException("Can not page events by " + property);
+		}
+		return new EventCursor(property, SORT_KEYS.get(property).apply(event), event.getId());
+	}
+
+	public static EventCursor decode(String encoded) {
+		String[] parts;
+		try {
+			parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\n", 3);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+		if (parts.length < 2 || !isSortable(parts[0])) {
+			throw new IllegalArgumentException("Malformed cursor");
+		}
+
+		try {
+			// a cursor without a value line stands for a null sort value
+			Object value = parts.length == 3 ? PARSERS.get(parts[0]).apply(parts[2]) : null;
+			return new EventCursor(parts[0], value, Integer.valueOf(parts[1]));
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+	}
+
+	public String encode() {
+		String raw = value == null ? property + "\n" + id : property + "\n" + id + "\n" + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
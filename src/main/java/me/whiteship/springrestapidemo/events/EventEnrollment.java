@@ -0,0 +1,10 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.Value;
+
+@Value
+public class EventEnrollment {
+	Integer eventId;
+	Integer accountId;
+	int remainingSeats;
+}
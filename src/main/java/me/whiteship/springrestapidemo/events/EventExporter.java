@@ -0,0 +1,72 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Component
+public class EventExporter {
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	public static final MediaType APPLICATION_NDJSON_UTF8 = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Transactional(readOnly = true)
+	public void export(OutputStream outputStream) throws IOException {
+		PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+		     Stream<Event> events = eventRepository.streamAllByOrderById()) {
+			generator.setRootValueSeparator(null);
+			events.forEach(event -> {
+				try {
+					write(generator, event, persistenceUnitUtil);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				entityManager.detach(event);
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void write(JsonGenerator generator, Event event, PersistenceUnitUtil persistenceUnitUtil) throws IOException {
+		generator.writeStartObject();
+		generator.writeNumberField("id", event.getId());
+		generator.writeStringField("name", event.getName());
+		generator.writeStringField("description", event.getDescription());
+		generator.writeObjectField("beginEnrollmentDateTime", event.getBeginEnrollmentDateTime());
+		generator.writeObjectField("closeEnrollmentDateTime", event.getCloseEnrollmentDateTime());
+		generator.writeObjectField("beginEventDateTime", event.getBeginEventDateTime());
+		generator.writeObjectField("endEventDateTime", event.getEndEventDateTime());
+		generator.writeStringField("location", event.getLocation());
+		generator.writeNumberField("basePrice", event.getBasePrice());
+		generator.writeNumberField("maxPrice", event.getMaxPrice());
+		generator.writeNumberField("limitOfEnrollment", event.getLimitOfEnrollment());
+		generator.writeBooleanField("offline", event.isOffline());
+		generator.writeBooleanField("free", event.isFree());
+		generator.writeObjectField("eventStatus", event.getEventStatus());
+		generator.writeObjectField("managerId", event.getManager() == null ? null : persistenceUnitUtil.getIdentifier(event.getManager()));
+		generator.writeEndObject();
+		generator.writeRaw('\n');
+	}
+}
@@ -0,0 +1,30 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.Getter;
+
+@Getter
+public class EventImportProgress {
+	private int processed;
+	private int created;
+	private int invalid;
+	private boolean done;
+
+	void created(int count) {
+		this.processed += count;
+		this.created += count;
+	}
+
+	void invalid() {
+		this.processed++;
+		this.invalid++;
+	}
+
+	void failed(int count) {
+		this.processed += count;
+		this.invalid += count;
+	}
+
+	void done() {
+		this.done = true;
+	}
+}
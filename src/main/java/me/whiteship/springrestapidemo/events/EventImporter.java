@@ -0,0 +1,164 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class EventImporter {
+	public static final String TEXT_CSV_VALUE = "text/csv";
+	public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+	@Autowired
+	EventBatchService eventBatchService;
+
+	@Autowired
+	EventMapper eventMapper;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Value("${app.events.import.chunk-size:500}")
+	int chunkSize;
+
+	private final CsvMapper csvMapper = (CsvMapper) new CsvMapper().registerModule(new JavaTimeModule());
+
+	public void importEvents(InputStream inputStream, MediaType contentType, OutputStream outputStream) throws IOException {
+		BufferedReader lines = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		ObjectReader rowReader = TEXT_CSV.includes(contentType)
+				? csvRowReader(lines.readLine())
+				: this.objectMapper.readerFor(EventDto.class);
+
+		try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+			generator.setRootValueSeparator(null);
+			EventImportProgress progress = new EventImportProgress();
+			Map<Integer, EventDto> chunk = new LinkedHashMap<>();
+			int index = 0;
+			String line;
+			while ((line = lines.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+
+				Errors errors;
+				try {
+					// a row holding the literal null reads as a null dto and is rejected by validate
+					EventDto eventDto = rowReader.readValue(line);
+					errors = this.eventBatchService.validate(eventDto);
+					if (!errors.hasErrors()) {
+						chunk.put(index, eventDto);
+					}
+				} catch (JsonProcessingException e) {
+					errors = new MapBindingResult(new HashMap<>(), "eventDto");
+					errors.reject("malformedRow", e.getOriginalMessage());
+				}
+				if (errors.hasErrors()) {
+					progress.invalid();
+					write(generator, EventBatchResult.invalid(index, errors));
+				}
+				index++;
+
+				if (chunk.size() == this.chunkSize) {
+					saveChunk(chunk, progress, generator);
+					write(generator, progress);
+					generator.flush();
+				}
+			}
+
+			saveChunk(chunk, progress, generator);
+			progress.done();
+			write(generator, progress);
+		}
+	}
+
+	private ObjectReader csvRowReader(String header) throws IOException {
+		CsvSchema.Builder schema = CsvSchema.builder();
+		if (header != null) {
+			String[] columns = this.csvMapper.readerFor(String[].class).with(CsvSchema.emptySchema()).readValue(header);
+			for (String column : columns) {
+				schema.addColumn(column.trim());
+			}
+		}
+		return this.csvMapper.readerFor(EventDto.class).with(schema.build());
+	}
+
+	private void saveChunk(Map<Integer, EventDto> chunk, EventImportProgress progress, JsonGenerator generator) throws IOException {
+		if (chunk.isEmpty()) {
+			return;
+		}
+
+		try {
+			// one transaction per chunk, so its events leave the persistence context once they are written
+			this.transactionTemplate.execute(status -> {
+				this.eventRepository.saveAll(chunk.values().stream().map(this::toEvent).collect(Collectors.toList()));
+				this.eventRepository.flush();
+				this.entityManager.clear();
+				return null;
+			});
+			progress.created(chunk.size());
+		} catch (DataAccessException e) {
+			// find the rows that broke the chunk; fresh entities, since the failed ones already got ids
+			for (Map.Entry<Integer, EventDto> row : chunk.entrySet()) {
+				saveRow(row.getKey(), row.getValue(), progress, generator);
+			}
+		}
+		chunk.clear();
+	}
+
+	private void saveRow(Integer index, EventDto eventDto, EventImportProgress progress, JsonGenerator generator) throws IOException {
+		try {
+			this.eventRepository.save(toEvent(eventDto));
+			progress.created(1);
+		} catch (DataAccessException e) {
+			progress.failed(1);
+			Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+			errors.reject("saveFailed", e.getMostSpecificCause().getMessage());
+			write(generator, EventBatchResult.invalid(index, errors));
+		}
+	}
+
+	private Event toEvent(EventDto eventDto) {
+		Event event = this.eventMapper.toEvent(eventDto);
+		event.update();
+		return event;
+	}
+
+	private void write(JsonGenerator generator, Object value) throws IOException {
+		generator.writeObject(value);
+		generator.writeRaw('\n');
+	}
+}
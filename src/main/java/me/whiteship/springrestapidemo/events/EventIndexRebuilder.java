@@ -0,0 +1,53 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.stream.Stream;
+
+/**
+ * Loads the in-memory views of events, {@link EventCalendar}, {@link EventTextIndex} and the seats of
+ * {@link EnrollmentService}, with a single pass over the event table when the application is ready. Each view
+ * answers that it is not ready until the pass is done, so none of them serves a half loaded answer.
+ */
+@Component
+public class EventIndexRebuilder {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventCalendar eventCalendar;
+
+	@Autowired
+	EventTextIndex eventTextIndex;
+
+	@Autowired
+	EnrollmentService enrollmentService;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		try (Stream<Event> events = this.eventRepository.streamAllByOrderById()) {
+			events.forEach(event -> {
+				this.eventCalendar.put(event);
+				this.eventTextIndex.put(event);
+				this.enrollmentService.restore(event);
+				this.entityManager.detach(event);
+			});
+		}
+		// after the events, so every enrollment finds the limit and the count of its event already in place
+		this.enrollmentService.restoreEnrollments();
+
+		this.eventCalendar.loaded();
+		this.eventTextIndex.loaded();
+		this.enrollmentService.loaded();
+	}
+}
@@ -0,0 +1,41 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class EventMapper {
+
+	public Event toEvent(EventDto eventDto) {
+		Event event = new Event();
+		update(eventDto, event);
+		return event;
+	}
+
+	public void update(EventDto eventDto, Event event) {
+		event.setName(eventDto.getName());
+		event.setDescription(eventDto.getDescription());
+		event.setBeginEnrollmentDateTime(eventDto.getBeginEnrollmentDateTime());
+		event.setCloseEnrollmentDateTime(eventDto.getCloseEnrollmentDateTime());
+		event.setBeginEventDateTime(eventDto.getBeginEventDateTime());
+		event.setEndEventDateTime(eventDto.getEndEventDateTime());
+		event.setLocation(eventDto.getLocation());
+		event.setBasePrice(eventDto.getBasePrice());
+		event.setMaxPrice(eventDto.getMaxPrice());
+		event.setLimitOfEnrollment(eventDto.getLimitOfEnrollment());
+	}
+
+	public EventDto toDto(Event event) {
+		return EventDto.builder()
+				.name(event.getName())
+				.description(event.getDescription())
+				.beginEnrollmentDateTime(event.getBeginEnrollmentDateTime())
+				.closeEnrollmentDateTime(event.getCloseEnrollmentDateTime())
+				.beginEventDateTime(event.getBeginEventDateTime())
+				.endEventDateTime(event.getEndEventDateTime())
+				.location(event.getLocation())
+				.basePrice(event.getBasePrice())
+				.maxPrice(event.getMaxPrice())
+				.limitOfEnrollment(event.getLimitOfEnrollment())
+				.build();
+	}
+}
@@ -0,0 +1,37 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import me.whiteship.springrestapidemo.common.ApiLinks;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.core.Relation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Relation(collectionRelation = "eventList")
+public class EventProjectionResource extends ResourceSupport {
+	private static final Set<String> FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"id", "name", "description",
+			"beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime",
+			"location", "basePrice", "maxPrice", "limitOfEnrollment", "offline", "free", "eventStatus")));
+
+	private final Map<String, Object> fields;
+
+	public EventProjectionResource(Map<String, Object> fields) {
+		this.fields = fields;
+		add(ApiLinks.event(fields.get("id"), Link.REL_SELF));
+	}
+
+	public static boolean isProjectable(String field) {
+		return FIELDS.contains(field);
+	}
+
+	@JsonAnyGetter
+	public Map<String, Object> getFields() {
+		return fields;
+	}
+}
@@ -1,6 +1,80 @@
 package me.whiteship.springrestapidemo.events;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>, EventRepositoryCustom {
+	@Override
+	@EntityGraph(attributePaths = "manager")
+	Page<Event> findAll(Pageable pageable);
+
+	@Override
+	@EntityGraph(attributePaths = "manager")
+	Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
+	@Override
+	@EntityGraph(attributePaths = "manager")
+	Optional<Event> findById(Integer id);
+
+	@EntityGraph(attributePaths = "manager")
+	List<Event> findByIdIn(Collection<Integer> ids);
+
+	@Query("select e from Event e order by e.id")
+	@QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+	Stream<Event> streamAllByOrderById();
+
+	@Query("select e.id, e.beginEnrollmentDateTime from Event e where e.eventStatus = :status and e.beginEnrollmentDateTime is not null")
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	Stream<Object[]> streamBeginEnrollmentByStatus(@Param("status") EventStatus status);
+
+	@Modifying
+	@Query("update Event e set e.eventStatus = :to, e.version = e.version + 1 " +
+			"where e.id in :ids and e.eventStatus = :from and e.beginEnrollmentDateTime <= :now")
+	int updateStatusOfDue(@Param("ids") Collection<Integer> ids, @Param("from") EventStatus from,
+	                      @Param("to") EventStatus to, @Param("now") LocalDateTime now);
+
+	@Query("select e.reservedSeats as reservedSeats, e.limitOfEnrollment as limitOfEnrollment from Event e where e.id = :id")
+	Optional<SeatCount> findSeatCountById(@Param("id") Integer id);
+
+	/**
+	 * Adds {@code seats} to the reserved seats if no other node changed them since they were read as
+	 * {@code reserved} and they stay within the limit.
+	 */
+	@Transactional
+	@Modifying
+	@Query("update Event e set e.reservedSeats = e.reservedSeats + :seats " +
+			"where e.id = :id and e.reservedSeats = :reserved and e.reservedSeats + :seats <= e.limitOfEnrollment")
+	int leaseSeats(@Param("id") Integer id, @Param("reserved") int reserved, @Param("seats") int seats);
+
+	// runs after the commit of whatever closed the event, so it needs a transaction of its own
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Modifying
+	@Query("update Event e set e.reservedSeats = e.reservedSeats - :seats where e.id = :id and e.reservedSeats >= :seats")
+	int returnSeats(@Param("id") Integer id, @Param("seats") int seats);
+
+	interface SeatCount {
+		int getReservedSeats();
+
+		int getLimitOfEnrollment();
+	}
 }
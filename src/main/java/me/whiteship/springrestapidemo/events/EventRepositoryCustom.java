@@ -0,0 +1,18 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface EventRepositoryCustom {
+	List<Event> findAfter(Specification<Event> spec, EventCursor cursor, Sort.Order order, int limit);
+
+	List<Event> findBefore(Specification<Event> spec, EventCursor cursor, Sort.Order order, int limit);
+
+	Page<Map<String, Object>> findAllProjected(Specification<Event> spec, Collection<String> fields, Pageable pageable);
+}
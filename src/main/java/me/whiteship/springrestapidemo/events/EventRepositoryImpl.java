@@ -0,0 +1,168 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class EventRepositoryImpl implements EventRepositoryCustom {
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Override
+	public List<Event> findAfter(Specification<Event> spec, EventCursor cursor, Sort.Order order, int limit) {
+		return findByKeyset(spec, cursor, order.isAscending(), order.getProperty(), limit);
+	}
+
+	@Override
+	public List<Event> findBefore(Specification<Event> spec, EventCursor cursor, Sort.Order order, int limit) {
+		List<Event> events = findByKeyset(spec, cursor, order.isDescending(), order.getProperty(), limit);
+		Collections.reverse(events);
+		return events;
+	}
+
+	@Override
+	public Page<Map<String, Object>> findAllProjected(Specification<Event> spec, Collection<String> fields, Pageable pageable) {
+		Set<String> columns = new LinkedHashSet<>();
+		columns.add("id");
+		columns.addAll(fields);
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Event> root = query.from(Event.class);
+		query.multiselect(columns.stream()
+				.map(column -> root.get(column).alias(column))
+				.collect(Collectors.toList()));
+		where(query, spec, root, cb);
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+		}
+
+		List<Map<String, Object>> content = typedQuery.getResultList().stream()
+				.map(tuple -> {
+					Map<String, Object> values = new LinkedHashMap<>();
+					columns.forEach(column -> values.put(column, tuple.get(column)));
+					return values;
+				})
+				.collect(Collectors.toList());
+		return PageableExecutionUtils.getPage(content, pageable, () -> countAll(spec));
+	}
+
+	private long countAll(Specification<Event> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Event> root = query.from(Event.class);
+		where(query.select(cb.count(root)), spec, root, cb);
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	/**
+	 * Pages by {@code (property, id)}. A null sort value counts as greater than every other value, so going up
+	 * the nulls come last and going down they come first, and a page may start or end inside them. The rows with
+	 * and without a value are read by separate queries, each ordered the way an index on the column can serve,
+	 * since the criteria API here can not say {@code nulls last}. {@code property} must already be checked with
+	 * {@link EventCursor#isSortable(String)}.
+	 */
+	private List<Event> findByKeyset(Specification<Event> spec, EventCursor cursor, boolean ascending, String property, int limit) {
+		if (property.equals("id")) {
+			return findSegment(spec, cursor, ascending, property, null, limit);
+		}
+
+		// going up the values come before the nulls, going down after them
+		boolean cursorInNulls = cursor != null && cursor.getValue() == null;
+		List<Boolean> segments = ascending ? Arrays.asList(false, true) : Arrays.asList(true, false);
+		List<Event> events = new ArrayList<>(limit);
+		boolean started = cursor == null;
+		for (Boolean nulls : segments) {
+			if (!started && nulls != cursorInNulls) {
+				continue;
+			}
+			EventCursor segmentCursor = started ? null : cursor;
+			started = true;
+			events.addAll(findSegment(spec, segmentCursor, ascending, property, nulls, limit - events.size()));
+			if (events.size() == limit) {
+				break;
+			}
+		}
+		return events;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private List<Event> findSegment(Specification<Event> spec, EventCursor cursor, boolean ascending, String property,
+	                                Boolean nulls, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Event> query = cb.createQuery(Event.class);
+		Root<Event> root = query.from(Event.class);
+		root.fetch("manager", JoinType.LEFT);
+		Path<Comparable> sortPath = root.get(property);
+		Path<Integer> idPath = root.get("id");
+		boolean byValue = nulls == null || !nulls;
+
+		List<Predicate> predicates = new ArrayList<>();
+		Predicate filter = spec == null ? null : spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			predicates.add(filter);
+		}
+		if (nulls != null) {
+			predicates.add(nulls ? cb.isNull(sortPath) : cb.isNotNull(sortPath));
+		}
+		if (cursor != null) {
+			Predicate afterId = ascending ? cb.greaterThan(idPath, cursor.getId()) : cb.lessThan(idPath, cursor.getId());
+			if (!byValue || property.equals("id")) {
+				predicates.add(afterId);
+			} else {
+				Comparable value = (Comparable) cursor.getValue();
+				predicates.add(cb.or(
+						ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value),
+						cb.and(cb.equal(sortPath, value), afterId)));
+			}
+		}
+		query.where(predicates.toArray(new Predicate[0]));
+
+		Order byId = ascending ? cb.asc(idPath) : cb.desc(idPath);
+		if (byValue && !property.equals("id")) {
+			query.orderBy(ascending ? cb.asc(sortPath) : cb.desc(sortPath), byId);
+		} else {
+			query.orderBy(byId);
+		}
+
+		return entityManager.createQuery(query.select(root))
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	private static <T> void where(CriteriaQuery<T> query, Specification<Event> spec, Root<Event> root, CriteriaBuilder cb) {
+		Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+	}
+}
@@ -1,16 +1,15 @@
 package me.whiteship.springrestapidemo.events;
 
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import me.whiteship.springrestapidemo.common.ApiLinks;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.ResourceSupport;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-
 public class EventResource extends Resource<Event> {
 	public EventResource(Event event, Link... links) {
 		super(event, links);
-		add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+		add(ApiLinks.event(event.getId(), Link.REL_SELF));
 	}
 }
 
@@ -0,0 +1,9 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter @RequiredArgsConstructor
+public class EventSaved {
+	private final Event event;
+}
@@ -0,0 +1,43 @@
+package me.whiteship.springrestapidemo.events;
+
+import lombok.Data;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+import static me.whiteship.springrestapidemo.events.EventSpecifications.*;
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+@Data
+public class EventSearch {
+	private EventStatus eventStatus;
+	private Boolean free;
+	private Boolean offline;
+	private Integer manager;
+
+	private Integer basePriceFrom;
+	private Integer basePriceTo;
+	private Integer maxPriceFrom;
+	private Integer maxPriceTo;
+
+	@DateTimeFormat(iso = DATE_TIME)
+	private LocalDateTime beginEventFrom;
+	@DateTimeFormat(iso = DATE_TIME)
+	private LocalDateTime beginEventTo;
+	@DateTimeFormat(iso = DATE_TIME)
+	private LocalDateTime enrollmentFrom;
+	@DateTimeFormat(iso = DATE_TIME)
+	private LocalDateTime enrollmentTo;
+
+	public Specification<Event> toSpecification() {
+		return Specification.where(hasStatus(eventStatus))
+				.and(isFree(free))
+				.and(isOffline(offline))
+				.and(managedBy(manager))
+				.and(basePriceBetween(basePriceFrom, basePriceTo))
+				.and(maxPriceBetween(maxPriceFrom, maxPriceTo))
+				.and(beginsBetween(beginEventFrom, beginEventTo))
+				.and(enrollmentOpenBetween(enrollmentFrom, enrollmentTo));
+	}
+}
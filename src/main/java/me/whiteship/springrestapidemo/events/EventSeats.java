@@ -0,0 +1,135 @@
+package me.whiteship.springrestapidemo.events;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The seats of one event on this node. Seats are handed out from a lease taken from the database in blocks, so
+ * only taking a new block touches the event row; the rush of a sold out event is turned away without touching
+ * it at all until {@link #SOLD_OUT_RECHECK_NANOS} passed, in case other nodes gave unused seats back.
+ */
+class EventSeats {
+	private static final long SOLD_OUT_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final AtomicInteger leased = new AtomicInteger();
+	private final Set<Integer> accountIds = ConcurrentHashMap.newKeySet();
+	private volatile int limit;
+	private volatile int reservedInDatabase;
+	private volatile boolean open;
+	private volatile long soldOutAt;
+	private volatile boolean soldOut;
+
+	/**
+	 * Takes up to a block of seats from the database and records it with {@link #leased(int, int)}.
+	 */
+	@FunctionalInterface
+	interface SeatLease {
+		void lease(EventSeats eventSeats);
+	}
+
+	/**
+	 * @return whether the event stopped taking enrollments, so the unused lease should be given back
+	 */
+	boolean update(Event event) {
+		boolean wasOpen = this.open;
+		this.limit = event.getLimitOfEnrollment();
+		this.open = event.getEventStatus() == EventStatus.BEGAN_ENROLLMENT;
+		return wasOpen && !this.open;
+	}
+
+	SeatReservation reserve(Integer accountId, SeatLease seatLease) {
+		if (!this.open) {
+			return SeatReservation.NOT_OPEN;
+		}
+		if (this.leased.get() <= 0 && isSoldOut()) {
+			return SeatReservation.FULL;
+		}
+		if (!this.accountIds.add(accountId)) {
+			return SeatReservation.ALREADY_ENROLLED;
+		}
+
+		boolean reserved;
+		try {
+			reserved = take() || leaseAndTake(seatLease);
+		} catch (RuntimeException e) {
+			this.accountIds.remove(accountId);
+			throw e;
+		}
+		if (!reserved) {
+			this.accountIds.remove(accountId);
+			return SeatReservation.FULL;
+		}
+		return SeatReservation.RESERVED;
+	}
+
+	void restore(int reservedInDatabase) {
+		this.reservedInDatabase = reservedInDatabase;
+	}
+
+	void restoreAccount(Integer accountId) {
+		this.accountIds.add(accountId);
+	}
+
+	/**
+	 * Records a lease the database granted, along with the seats it now holds reserved for all nodes together.
+	 */
+	void leased(int seats, int reservedInDatabase) {
+		this.reservedInDatabase = reservedInDatabase;
+		if (seats > 0) {
+			this.soldOut = false;
+			this.leased.addAndGet(seats);
+		} else {
+			this.soldOutAt = System.nanoTime();
+			this.soldOut = true;
+		}
+	}
+
+	/**
+	 * Puts the seat of an enrollment that could not be written back into the lease.
+	 */
+	void release(Integer accountId) {
+		if (this.accountIds.remove(accountId)) {
+			this.leased.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Empties the lease and returns the seats that were left, to be given back to the database.
+	 */
+	int returnLease() {
+		return this.leased.getAndSet(0);
+	}
+
+	int remaining() {
+		return this.leased.get() + Math.max(this.limit - this.reservedInDatabase, 0);
+	}
+
+	private boolean take() {
+		int current;
+		do {
+			current = this.leased.get();
+			if (current <= 0) {
+				return false;
+			}
+		} while (!this.leased.compareAndSet(current, current - 1));
+		return true;
+	}
+
+	private synchronized boolean leaseAndTake(SeatLease seatLease) {
+		// another thread may have taken a new block while this one waited
+		if (take()) {
+			return true;
+		}
+		if (isSoldOut()) {
+			return false;
+		}
+		seatLease.lease(this);
+		return take();
+	}
+
+	private boolean isSoldOut() {
+		return this.soldOut && System.nanoTime() - this.soldOutAt < SOLD_OUT_RECHECK_NANOS;
+	}
+}
@@ -0,0 +1,61 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class EventSpecifications {
+
+	private EventSpecifications() {
+	}
+
+	public static Specification<Event> hasStatus(EventStatus eventStatus) {
+		return eventStatus == null ? null : (root, query, cb) -> cb.equal(root.get("eventStatus"), eventStatus);
+	}
+
+	public static Specification<Event> isFree(Boolean free) {
+		return free == null ? null : (root, query, cb) -> cb.equal(root.get("free"), free);
+	}
+
+	public static Specification<Event> isOffline(Boolean offline) {
+		return offline == null ? null : (root, query, cb) -> cb.equal(root.get("offline"), offline);
+	}
+
+	public static Specification<Event> managedBy(Integer managerId) {
+		return managerId == null ? null : (root, query, cb) -> cb.equal(root.get("manager").get("id"), managerId);
+	}
+
+	public static Specification<Event> basePriceBetween(Integer from, Integer to) {
+		return Specification.where(atLeast("basePrice", from)).and(atMost("basePrice", to));
+	}
+
+	public static Specification<Event> maxPriceBetween(Integer from, Integer to) {
+		return Specification.where(atLeast("maxPrice", from)).and(atMost("maxPrice", to));
+	}
+
+	/**
+	 * Events that begin in {@code [from, to)}.
+	 */
+	public static Specification<Event> beginsBetween(LocalDateTime from, LocalDateTime to) {
+		return Specification.where(atLeast("beginEventDateTime", from)).and(before("beginEventDateTime", to));
+	}
+
+	/**
+	 * Events whose enrollment period overlaps {@code [from, to)}.
+	 */
+	public static Specification<Event> enrollmentOpenBetween(LocalDateTime from, LocalDateTime to) {
+		return Specification.where(atLeast("closeEnrollmentDateTime", from)).and(before("beginEnrollmentDateTime", to));
+	}
+
+	private static <T extends Comparable<? super T>> Specification<Event> atLeast(String attribute, T value) {
+		return value == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), value);
+	}
+
+	private static <T extends Comparable<? super T>> Specification<Event> atMost(String attribute, T value) {
+		return value == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), value);
+	}
+
+	private static <T extends Comparable<? super T>> Specification<Event> before(String attribute, T value) {
+		return value == null ? null : (root, query, cb) -> cb.lessThan(root.get(attribute), value);
+	}
+}
@@ -0,0 +1,132 @@
+package me.whiteship.springrestapidemo.events;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import me.whiteship.springrestapidemo.common.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class EventStatusScheduler implements MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(EventStatusScheduler.class);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventVersionCache eventVersionCache;
+
+	@Autowired
+	ApplicationEventPublisher applicationEventPublisher;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Value("${app.events.status-scheduler.enabled:true}")
+	boolean enabled;
+
+	@Value("${app.events.status-scheduler.tick:1000}")
+	long tickMillis;
+
+	@Value("${app.events.status-scheduler.wheel-size:4096}")
+	int wheelSize;
+
+	@Value("${app.events.status-scheduler.batch-size:500}")
+	int batchSize;
+
+	private HashedTimerWheel<Integer> wheel;
+
+	@PostConstruct
+	public void initWheel() {
+		this.wheel = new HashedTimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		try (Stream<Object[]> rows = this.eventRepository.streamBeginEnrollmentByStatus(EventStatus.PUBLISHED)) {
+			rows.forEach(row -> this.wheel.schedule((Integer) row[0], toMillis((LocalDateTime) row[1])));
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void eventSaved(EventSaved eventSaved) {
+		Event event = eventSaved.getEvent();
+		if (event.getEventStatus() == EventStatus.PUBLISHED && event.getBeginEnrollmentDateTime() != null) {
+			this.wheel.schedule(event.getId(), toMillis(event.getBeginEnrollmentDateTime()));
+		} else {
+			this.wheel.cancel(event.getId());
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.events.status-scheduler.tick:1000}")
+	public void tick() {
+		if (this.enabled) {
+			beginDueEnrollments(System.currentTimeMillis());
+		}
+	}
+
+	public int beginDueEnrollments(long nowMillis) {
+		List<Integer> due = this.wheel.advance(nowMillis);
+		LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+		int begun = 0;
+		for (int from = 0; from < due.size(); from += this.batchSize) {
+			List<Integer> ids = due.subList(from, Math.min(from + this.batchSize, due.size()));
+			try {
+				begun += this.transactionTemplate.execute(status -> beginEnrollments(ids, now));
+			} catch (RuntimeException e) {
+				log.warn("Could not begin enrollment of {} events, retrying on the next tick: {}", ids.size(), e.toString());
+				ids.forEach(id -> this.wheel.schedule(id, nowMillis));
+			}
+		}
+		return begun;
+	}
+
+	public boolean isScheduled(Integer eventId) {
+		return this.wheel.contains(eventId);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("events.status-scheduler.scheduled", this, scheduler -> scheduler.wheel.size())
+				.description("Published events waiting for their enrollment to begin")
+				.register(registry);
+	}
+
+	private int beginEnrollments(List<Integer> ids, LocalDateTime now) {
+		int updated = this.eventRepository.updateStatusOfDue(ids, EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, now);
+		if (updated > 0) {
+			// the bulk update skips the entity lifecycle, so tell the in-memory views about the new status ourselves
+			this.eventRepository.findByIdIn(ids).stream()
+					.filter(event -> event.getEventStatus() == EventStatus.BEGAN_ENROLLMENT)
+					.forEach(event -> {
+						this.eventVersionCache.evict(event.getId());
+						this.applicationEventPublisher.publishEvent(new EventSaved(event));
+					});
+		}
+		return updated;
+	}
+
+	private static long toMillis(LocalDateTime dateTime) {
+		Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+		return instant.toEpochMilli() + (instant.getNano() % 1_000_000 == 0 ? 0 : 1);
+	}
+}
@@ -0,0 +1,63 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.InvertedIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full text index over the name, location and description of events, loaded by {@link EventIndexRebuilder} when
+ * the application is ready and kept current by {@link EventSaved}. Like {@link EventCalendar} it ignores an event
+ * older than the version it already indexed, so the rebuild can not undo a concurrent save, and it only sees the
+ * saves made by this node.
+ */
+@Component
+public class EventTextIndex {
+	private static final float NAME_WEIGHT = 3;
+	private static final float LOCATION_WEIGHT = 2;
+	private static final float DESCRIPTION_WEIGHT = 1;
+
+	private final InvertedIndex index = new InvertedIndex();
+	private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void eventSaved(EventSaved eventSaved) {
+		put(eventSaved.getEvent());
+	}
+
+	public boolean isReady() {
+		return this.ready;
+	}
+
+	public List<Integer> search(String query, int limit) {
+		return this.index.search(query, limit);
+	}
+
+	void loaded() {
+		this.ready = true;
+	}
+
+	void put(Event event) {
+		int version = event.getVersion() == null ? Integer.MIN_VALUE : event.getVersion();
+		this.versions.compute(event.getId(), (id, held) -> {
+			if (held != null && held > version) {
+				return held;
+			}
+			Map<String, Float> termWeights = new HashMap<>();
+			addTerms(termWeights, event.getName(), NAME_WEIGHT);
+			addTerms(termWeights, event.getLocation(), LOCATION_WEIGHT);
+			addTerms(termWeights, event.getDescription(), DESCRIPTION_WEIGHT);
+			this.index.put(id, termWeights);
+			return version;
+		});
+	}
+
+	private static void addTerms(Map<String, Float> termWeights, String text, float weight) {
+		InvertedIndex.tokenize(text).forEach(term -> termWeights.merge(term, weight, Float::sum));
+	}
+}
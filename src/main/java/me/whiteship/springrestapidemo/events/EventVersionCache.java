@@ -0,0 +1,68 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class EventVersionCache {
+	private final Cache<Integer, Integer> versions = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterWrite(Duration.ofSeconds(10))
+			.build();
+
+	public static String eTag(Integer version) {
+		return "\"" + version + "\"";
+	}
+
+	public static boolean matches(String ifNoneMatch, Integer version) {
+		return matches(ifNoneMatch, version, false);
+	}
+
+	public static boolean matchesStrongly(String ifMatch, Integer version) {
+		return matches(ifMatch, version, true);
+	}
+
+	private static boolean matches(String header, Integer version, boolean strong) {
+		if (header == null || version == null) {
+			return false;
+		}
+
+		String eTag = eTag(version);
+		for (String candidate : header.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*")) {
+				return true;
+			}
+			if (candidate.startsWith("W/")) {
+				if (strong) {
+					continue;
+				}
+				candidate = candidate.substring(2);
+			}
+			if (candidate.equals(eTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Integer get(Integer id) {
+		return versions.getIfPresent(id);
+	}
+
+	/**
+	 * Keeps the newest version seen, so a read that raced with a write can not bring back an older one.
+	 */
+	public void put(Event event) {
+		if (event.getVersion() != null) {
+			versions.asMap().merge(event.getId(), event.getVersion(), Math::max);
+		}
+	}
+
+	public void evict(Integer id) {
+		versions.invalidate(id);
+	}
+}
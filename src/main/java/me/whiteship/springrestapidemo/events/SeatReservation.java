@@ -0,0 +1,5 @@
+package me.whiteship.springrestapidemo.events;
+
+public enum SeatReservation {
+	RESERVED, FULL, ALREADY_ENROLLED, NOT_OPEN, NOT_FOUND, NOT_READY;
+}
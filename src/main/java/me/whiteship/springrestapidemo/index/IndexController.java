@@ -1,19 +1,17 @@
 package me.whiteship.springrestapidemo.index;
 
-import me.whiteship.springrestapidemo.events.EventController;
+import me.whiteship.springrestapidemo.common.ApiLinks;
 import org.springframework.hateoas.ResourceSupport;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-
 @RestController
 public class IndexController {
 
 	@GetMapping("/api")
 	public ResourceSupport index() {
 		ResourceSupport index = new ResourceSupport();
-		index.add(linkTo(EventController.class).withRel("events"));
+		index.add(ApiLinks.events("events"));
 		return index;
 	}
 }
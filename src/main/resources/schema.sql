@@ -0,0 +1,22 @@
+create table if not exists oauth_access_token (
+	token_id varchar(256),
+	token bytea,
+	authentication_id varchar(256) primary key,
+	user_name varchar(256),
+	client_id varchar(256),
+	authentication bytea,
+	refresh_token varchar(256),
+	expiration timestamp
+);
+create index if not exists oauth_access_token_token_id on oauth_access_token (token_id);
+create index if not exists oauth_access_token_refresh_token on oauth_access_token (refresh_token);
+create index if not exists oauth_access_token_expiration on oauth_access_token (expiration);
+
+create table if not exists oauth_refresh_token (
+	token_id varchar(256),
+	token bytea,
+	authentication bytea,
+	expiration timestamp
+);
+create index if not exists oauth_refresh_token_token_id on oauth_refresh_token (token_id);
+create index if not exists oauth_refresh_token_expiration on oauth_refresh_token (expiration);
@@ -0,0 +1,47 @@
+package me.whiteship.springrestapidemo.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import me.whiteship.springrestapidemo.events.EventDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorsSerializerBenchmark {
+	ObjectMapper objectMapper;
+	Errors errors;
+
+	@Setup
+	public void setUp() {
+		objectMapper = new ObjectMapper()
+				.registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+		EventDto eventDto = EventDto.builder().basePrice(-1).build();
+		errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+		errors.rejectValue("name", "NotEmpty", "must not be empty");
+		errors.rejectValue("description", "NotEmpty", "must not be empty");
+		errors.rejectValue("basePrice", "Min", "must be greater than or equal to 0");
+		errors.reject("wrongPrices", "Values for prices are wrong");
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return objectMapper.writeValueAsBytes(errors);
+	}
+}
@@ -0,0 +1,77 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class InvertedIndexBenchmark {
+	private static final int VOCABULARY = 50_000;
+	private static final int TERMS_PER_EVENT = 12;
+
+	@Param({"100000", "2000000"})
+	int events;
+
+	InvertedIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new InvertedIndex();
+		Random random = new Random(42);
+		for (int id = 1; id <= events; id++) {
+			Map<String, Float> terms = new HashMap<>();
+			for (int i = 0; i < TERMS_PER_EVENT; i++) {
+				terms.merge(word(zipf(random)), i < 3 ? 3f : 1f, Float::sum);
+			}
+			index.put(id, terms);
+		}
+	}
+
+	@Benchmark
+	public List<Integer> rareTerm() {
+		return index.search(word(20_000), 20);
+	}
+
+	@Benchmark
+	public List<Integer> twoTerms() {
+		return index.search(word(300) + " " + word(2_000), 20);
+	}
+
+	@Benchmark
+	public List<Integer> prefix() {
+		return index.search(word(5_000).substring(0, 4), 20);
+	}
+
+	@Benchmark
+	public List<Integer> frequentTerm() {
+		return index.search(word(10), 20);
+	}
+
+	// rank r is drawn with probability proportional to 1 / r
+	private static int zipf(Random random) {
+		return (int) Math.pow(VOCABULARY, random.nextDouble());
+	}
+
+	private static String word(int rank) {
+		return "w" + Integer.toString(rank * 7919 % 1_000_003, 36);
+	}
+}
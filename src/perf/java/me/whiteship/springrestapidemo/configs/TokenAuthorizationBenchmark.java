@@ -0,0 +1,111 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.accounts.AccountAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenAuthorizationBenchmark {
+	EmbeddedDatabase database;
+	TokenStore jdbcTokenStore;
+	TokenStore cachingJdbcTokenStore;
+	TokenStore jwtTokenStore;
+	TokenStore cachingJwtTokenStore;
+	String storedToken;
+	String signedToken;
+
+	@Setup
+	public void setUp() throws Exception {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.addScript("schema.sql")
+				.build();
+		jdbcTokenStore = new JdbcTokenStore(database);
+		cachingJdbcTokenStore = new CachingJdbcTokenStore(database, 1000, Duration.ofMinutes(5), 500);
+
+		AccountJwtAccessTokenConverter converter = new AccountJwtAccessTokenConverter();
+		converter.setSigningKey("benchmark-signing-key");
+		converter.afterPropertiesSet();
+		jwtTokenStore = new JwtTokenStore(converter);
+		cachingJwtTokenStore = new CachingJwtTokenStore(converter, 1000, Duration.ofMinutes(5));
+
+		OAuth2Authentication authentication = authentication();
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+		token.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+		cachingJdbcTokenStore.storeAccessToken(token, authentication);
+		storedToken = token.getValue();
+		signedToken = converter.enhance(token, authentication).getValue();
+	}
+
+	@TearDown
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public OAuth2Authentication jdbc() {
+		return authorize(jdbcTokenStore, storedToken);
+	}
+
+	@Benchmark
+	public OAuth2Authentication jdbcWithNearCache() {
+		return authorize(cachingJdbcTokenStore, storedToken);
+	}
+
+	@Benchmark
+	public OAuth2Authentication jwt() {
+		return authorize(jwtTokenStore, signedToken);
+	}
+
+	@Benchmark
+	public OAuth2Authentication jwtWithVerifiedCache() {
+		return authorize(cachingJwtTokenStore, signedToken);
+	}
+
+	// the two lookups DefaultTokenServices.loadAuthentication makes for every request
+	private OAuth2Authentication authorize(TokenStore tokenStore, String tokenValue) {
+		OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
+		return tokenStore.readAuthentication(accessToken);
+	}
+
+	private OAuth2Authentication authentication() {
+		AccountAdapter account = new AccountAdapter(1, "keesun@email.com", "pass",
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp", AuthorityUtils.NO_AUTHORITIES,
+				true, Collections.singleton("read"), null, null, null, null);
+		return new OAuth2Authentication(request, new UsernamePasswordAuthenticationToken(account, null, account.getAuthorities()));
+	}
+}
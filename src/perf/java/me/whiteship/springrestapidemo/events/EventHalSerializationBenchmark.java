@@ -0,0 +1,107 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.common.ApiLinks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.core.DefaultRelProvider;
+import org.springframework.hateoas.hal.Jackson2HalModule;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventHalSerializationBenchmark {
+	ObjectMapper halObjectMapper;
+	EventResource eventResource;
+	PagedResources<Resource<Event>> pagedResources;
+
+	@Setup
+	public void setUp() {
+		halObjectMapper = new ObjectMapper()
+				.registerModule(new Jackson2HalModule())
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		halObjectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new DefaultRelProvider(), null, new MessageSourceAccessor(new StaticMessageSource())));
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/events")));
+		try {
+			Account manager = Account.builder()
+					.id(1)
+					.email("keesun@email.com")
+					.roles(Collections.singleton(AccountRole.USER))
+					.build();
+			eventResource = new EventResource(event(1, manager));
+			eventResource.add(ApiLinks.profile("resources-events-get"));
+
+			List<Resource<Event>> content = IntStream.rangeClosed(1, 100)
+					.mapToObj(id -> (Resource<Event>) new EventResource(event(id, manager)))
+					.collect(Collectors.toList());
+			pagedResources = new PagedResources<>(content, new PagedResources.PageMetadata(100, 0, 1000),
+					new Link("http://localhost/api/events?page=0&size=100").withSelfRel(),
+					new Link("http://localhost/api/events?page=1&size=100").withRel(Link.REL_NEXT),
+					ApiLinks.profile("resources-events-list"));
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Benchmark
+	public byte[] eventResource() throws Exception {
+		return halObjectMapper.writeValueAsBytes(eventResource);
+	}
+
+	@Benchmark
+	public byte[] pagedResources() throws Exception {
+		return halObjectMapper.writeValueAsBytes(pagedResources);
+	}
+
+	private Event event(int id, Account manager) {
+		Event event = Event.builder()
+				.id(id)
+				.name("event " + id).description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.eventStatus(EventStatus.PUBLISHED)
+				.manager(manager)
+				.build();
+		event.update();
+		return event;
+	}
+}
@@ -0,0 +1,75 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMapperBenchmark {
+	ModelMapper modelMapper;
+	EventMapper eventMapper;
+	EventDto eventDto;
+	Event existingEvent;
+
+	@Setup
+	public void setUp() {
+		modelMapper = new ModelMapper();
+		eventMapper = new EventMapper();
+		eventDto = EventDto.builder()
+				.name("Spring").description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+		existingEvent = eventMapper.toEvent(eventDto);
+		existingEvent.setId(1);
+
+		// ModelMapper builds its type maps lazily on the first call
+		modelMapper.map(eventDto, Event.class);
+		modelMapper.map(eventDto, existingEvent);
+		modelMapper.map(existingEvent, Event.class);
+	}
+
+	@Benchmark
+	public Event createWithModelMapper() {
+		return modelMapper.map(eventDto, Event.class);
+	}
+
+	@Benchmark
+	public Event createWithEventMapper() {
+		return eventMapper.toEvent(eventDto);
+	}
+
+	@Benchmark
+	public Event updateWithModelMapper() {
+		modelMapper.map(eventDto, existingEvent);
+		return modelMapper.map(existingEvent, Event.class);
+	}
+
+	@Benchmark
+	public Event updateWithEventMapper() {
+		eventMapper.update(eventDto, existingEvent);
+		return existingEvent;
+	}
+}
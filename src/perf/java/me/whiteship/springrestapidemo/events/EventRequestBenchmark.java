@@ -0,0 +1,79 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventRequestBenchmark {
+	EventValidator eventValidator;
+	EventMapper eventMapper;
+	EventDto eventDto;
+	EventDto wrongEventDto;
+	Event event;
+
+	@Setup
+	public void setUp() {
+		eventValidator = new EventValidator();
+		eventMapper = new EventMapper();
+		eventDto = EventDto.builder()
+				.name("Spring").description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+		wrongEventDto = eventMapper.toDto(eventMapper.toEvent(eventDto));
+		wrongEventDto.setBasePrice(10000);
+		wrongEventDto.setEndEventDateTime(LocalDateTime.of(2018, 12, 20, 14, 21));
+		event = eventMapper.toEvent(eventDto);
+	}
+
+	@Benchmark
+	public Errors validate() {
+		Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+		eventValidator.validate(eventDto, errors);
+		return errors;
+	}
+
+	@Benchmark
+	public Errors validateWrongInput() {
+		Errors errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+		eventValidator.validate(wrongEventDto, errors);
+		return errors;
+	}
+
+	@Benchmark
+	public Event toEvent() {
+		Event newEvent = eventMapper.toEvent(eventDto);
+		newEvent.update();
+		return newEvent;
+	}
+
+	@Benchmark
+	public Event update() {
+		event.update();
+		return event;
+	}
+}
@@ -0,0 +1,339 @@
+package me.whiteship.springrestapidemo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.whiteship.springrestapidemo.SpringRestApiDemoApplication;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.accounts.AccountService;
+import me.whiteship.springrestapidemo.events.EventDto;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Clients send on a fixed schedule with a bearer token taken once from /oauth/token, so only that pays for password
+// hashing and every request is authorized through the configured token store.
+// Latency is measured from when a request was due, not from when it was sent, so a stalled server is charged
+// for the requests that queued up behind the stall instead of hiding them (coordinated omission).
+public class EventLoadTest {
+	private static final String PASSWORD = "load-test";
+
+	private final Environment environment;
+	private final String baseUri;
+	private final ObjectMapper objectMapper;
+	private final Map<String, Operation> operations = new LinkedHashMap<>();
+	private final List<Integer> eventIds = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicLong unsent = new AtomicLong();
+	private volatile boolean measuring;
+	private volatile long end;
+
+	public static void main(String[] args) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringRestApiDemoApplication.class)
+				.profiles("prod", "test")
+				.properties("server.port=0")
+				.run(args)) {
+			new EventLoadTest(context).run();
+		}
+	}
+
+	EventLoadTest(ConfigurableApplicationContext context) {
+		this.environment = context.getEnvironment();
+		this.baseUri = "http://localhost:" + environment.getProperty("local.server.port");
+		this.objectMapper = context.getBean(ObjectMapper.class);
+		String mix = environment.getProperty("loadtest.mix", "create:1,query:4,get:4,update:1");
+		for (String entry : mix.split(",")) {
+			String[] nameAndWeight = entry.trim().split(":");
+			operations.put(nameAndWeight[0], new Operation(nameAndWeight[0], Integer.parseInt(nameAndWeight[1])));
+		}
+
+		AccountService accountService = context.getBean(AccountService.class);
+		for (int i = 0; i < clients(); i++) {
+			accountService.saveAccount(Account.builder()
+					.email(email(i))
+					.password(PASSWORD)
+					.roles(Collections.singleton(AccountRole.USER))
+					.build());
+		}
+	}
+
+	void run() throws Exception {
+		int clients = clients();
+		Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+		Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+		int rate = environment.getProperty("loadtest.rate", Integer.class, 1000);
+		long interval = TimeUnit.SECONDS.toNanos(1) * clients / rate;
+		System.out.printf("%d clients, %d req/s, %s warmup, %s measurement, mix %s%n", clients, rate, warmup, duration, operations.values());
+
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		CountDownLatch ready = new CountDownLatch(clients);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < clients; i++) {
+			Client client = new Client(email(i));
+			long offset = interval * i / clients;
+			executor.execute(() -> {
+				client.login();
+				for (int seed = 0; seed < 10; seed++) {
+					client.create();
+				}
+				ready.countDown();
+				awaitUninterruptibly(start);
+				long due = System.nanoTime() + offset;
+				while (due < end) {
+					sleepUntil(due);
+					if (System.nanoTime() >= end) {
+						break;
+					}
+					client.perform(pick(), due);
+					due += interval;
+				}
+				if (due < end) {
+					unsent.addAndGet((end - due) / interval + 1);
+				}
+			});
+		}
+
+		ready.await();
+		end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+		start.countDown();
+		Thread.sleep(warmup.toMillis());
+		operations.values().forEach(Operation::reset);
+		long started = System.nanoTime();
+		measuring = true;
+		executor.shutdown();
+		executor.awaitTermination(duration.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+		double elapsedSeconds = Math.min(System.nanoTime(), end) - started;
+		elapsedSeconds /= TimeUnit.SECONDS.toNanos(1);
+
+		report(elapsedSeconds);
+	}
+
+	private void report(double elapsedSeconds) {
+		System.out.printf("%n%-8s %10s %10s %10s %10s %10s %10s %8s %12s%n",
+				"endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "err p99 ms");
+		Histogram total = new Histogram(3);
+		Histogram totalFailures = new Histogram(3);
+		for (Operation operation : operations.values()) {
+			print(operation.name, operation.latencies, operation.failures, elapsedSeconds);
+			total.add(operation.latencies);
+			totalFailures.add(operation.failures);
+		}
+		print("total", total, totalFailures, elapsedSeconds);
+		if (unsent.get() > 0) {
+			System.out.printf("%n%d scheduled requests were never sent: the server can not keep up with loadtest.rate%n", unsent.get());
+		}
+	}
+
+	private void print(String name, Histogram latencies, Histogram failures, double elapsedSeconds) {
+		System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d %12.2f%n",
+				name,
+				latencies.getTotalCount(),
+				(latencies.getTotalCount() + failures.getTotalCount()) / elapsedSeconds,
+				millis(latencies.getValueAtPercentile(50)),
+				millis(latencies.getValueAtPercentile(99)),
+				millis(latencies.getValueAtPercentile(99.9)),
+				millis(latencies.getMaxValue()),
+				failures.getTotalCount(),
+				millis(failures.getValueAtPercentile(99)));
+	}
+
+	private Operation pick() {
+		int totalWeight = operations.values().stream().mapToInt(operation -> operation.weight).sum();
+		int value = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Operation operation : operations.values()) {
+			value -= operation.weight;
+			if (value < 0) {
+				return operation;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private int clients() {
+		return environment.getProperty("loadtest.clients", Integer.class, 32);
+	}
+
+	private static String email(int client) {
+		return "load-test-" + client + "@email.com";
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static void sleepUntil(long due) {
+		long delay = due - System.nanoTime();
+		if (delay > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static EventDto eventDto() {
+		LocalDateTime begin = LocalDateTime.of(2018, 12, 23, 14, 21);
+		return EventDto.builder()
+				.name("load test").description("REST API Development")
+				.beginEnrollmentDateTime(begin)
+				.closeEnrollmentDateTime(begin.plusDays(1))
+				.beginEventDateTime(begin.plusDays(2))
+				.endEventDateTime(begin.plusDays(3))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+	}
+
+	private class Client {
+		private final RestTemplate restTemplate;
+		private final HttpHeaders headers = new HttpHeaders();
+		private final String email;
+
+		Client(String email) {
+			this.email = email;
+			this.restTemplate = new RestTemplateBuilder()
+					.rootUri(baseUri)
+					.errorHandler(new DefaultResponseErrorHandler() {
+						@Override
+						public boolean hasError(ClientHttpResponse response) {
+							return false;
+						}
+					})
+					.build();
+			headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+		}
+
+		void login() {
+			HttpHeaders clientHeaders = new HttpHeaders();
+			clientHeaders.setBasicAuth(environment.getProperty("app.security.client-id", "myApp"),
+					environment.getProperty("app.security.client-secret", "pass"));
+			clientHeaders.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+			MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+			form.add("grant_type", "password");
+			form.add("username", email);
+			form.add("password", PASSWORD);
+			ResponseEntity<String> response = restTemplate.exchange("/oauth/token", HttpMethod.POST, new HttpEntity<>(form, clientHeaders), String.class);
+			if (!response.getStatusCode().is2xxSuccessful()) {
+				throw new IllegalStateException("Login failed with " + response.getStatusCode());
+			}
+			try {
+				headers.setBearerAuth(objectMapper.readTree(response.getBody()).get("access_token").asText());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void perform(Operation operation, long due) {
+			boolean succeeded;
+			switch (operation.name) {
+				case "create":
+					succeeded = create();
+					break;
+				case "query":
+					succeeded = exchange(HttpMethod.GET, "/api/events?page=" + ThreadLocalRandom.current().nextInt(5) + "&size=20", null) != null;
+					break;
+				case "get":
+					succeeded = exchange(HttpMethod.GET, "/api/events/" + randomEventId(), null) != null;
+					break;
+				case "update":
+					succeeded = exchange(HttpMethod.PUT, "/api/events/" + randomEventId(), eventDto()) != null;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown operation " + operation.name);
+			}
+			if (measuring) {
+				operation.record(System.nanoTime() - due, succeeded);
+			}
+		}
+
+		boolean create() {
+			String body = exchange(HttpMethod.POST, "/api/events", eventDto());
+			if (body == null) {
+				return false;
+			}
+			try {
+				JsonNode event = objectMapper.readTree(body);
+				eventIds.add(event.get("id").asInt());
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		private String exchange(HttpMethod method, String uri, Object body) {
+			ResponseEntity<String> response = restTemplate.exchange(uri, method, new HttpEntity<>(body, headers), String.class);
+			return response.getStatusCode().is2xxSuccessful() ? response.getBody() : null;
+		}
+
+		private Integer randomEventId() {
+			synchronized (eventIds) {
+				return eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size()));
+			}
+		}
+	}
+
+	private static class Operation {
+		private final String name;
+		private final int weight;
+		private final Histogram latencies = new ConcurrentHistogram(3);
+		private final Histogram failures = new ConcurrentHistogram(3);
+
+		Operation(String name, int weight) {
+			this.name = name;
+			this.weight = weight;
+		}
+
+		void record(long nanos, boolean succeeded) {
+			(succeeded ? latencies : failures).recordValue(nanos);
+		}
+
+		void reset() {
+			latencies.reset();
+			failures.reset();
+		}
+
+		@Override
+		public String toString() {
+			return name + ":" + weight;
+		}
+	}
+}
@@ -70,4 +70,27 @@ public class AccountServiceTest {
 
 		this.accountService.loadUserByUsername(username);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void loadUserByUsername_cached() {
+		String username = "cached@email.com";
+		Account account = this.accountService.saveAccount(Account.builder()
+				.email(username)
+				.password("before")
+				.roles(Stream.of(AccountRole.USER).collect(Collectors.toSet()))
+				.build());
+		long hits = this.accountService.userDetailsCacheStats().hitCount();
+
+		UserDetails first = this.accountService.loadUserByUsername(username);
+		UserDetails second = this.accountService.loadUserByUsername(username);
+
+		assertThat(this.accountService.userDetailsCacheStats().hitCount()).isEqualTo(hits + 1);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+		account.setPassword("after");
+		this.accountService.saveAccount(account);
+
+		assertThat(passwordEncoder.matches("after", this.accountService.loadUserByUsername(username).getPassword())).isTrue();
+	}
+}
@@ -0,0 +1,60 @@
+package me.whiteship.springrestapidemo.common;
+
+import me.whiteship.springrestapidemo.events.EventController;
+import me.whiteship.springrestapidemo.index.IndexController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+public class ApiLinksTest {
+	MockHttpServletRequest request;
+
+	@Before
+	public void setUp() {
+		request = new MockHttpServletRequest("GET", "/api/events");
+		request.setScheme("https");
+		request.setServerName("api.example.com");
+		request.setServerPort(8443);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@After
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void sameHrefsAsControllerLinkBuilder() {
+		assertThat(ApiLinks.events("query-events"))
+				.isEqualTo(linkTo(EventController.class).withRel("query-events"));
+		assertThat(ApiLinks.event(10, Link.REL_SELF))
+				.isEqualTo(linkTo(EventController.class).slash(10).withSelfRel());
+		assertThat(ApiLinks.eventUri(10))
+				.isEqualTo(linkTo(EventController.class).slash(10).toUri());
+		assertThat(ApiLinks.index("index"))
+				.isEqualTo(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+		assertThat(ApiLinks.profile("resources-events-get"))
+				.isEqualTo(new Link("/docs/index.html#resources-events-get").withRel("profile"));
+	}
+
+	@Test
+	public void resolvesBaseUriOncePerRequest() {
+		assertThat(ApiLinks.event(1, Link.REL_SELF).getHref()).isEqualTo("https://api.example.com:8443/api/events/1");
+
+		assertThat(ApiLinks.event(2, Link.REL_SELF).getHref()).isEqualTo("https://api.example.com:8443/api/events/2");
+		MockHttpServletRequest nextRequest = new MockHttpServletRequest("GET", "/api/events");
+		nextRequest.setScheme("https");
+		nextRequest.setServerName("changed.example.com");
+		nextRequest.setServerPort(8443);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(nextRequest));
+		assertThat(ApiLinks.event(2, Link.REL_SELF).getHref()).isEqualTo("https://changed.example.com:8443/api/events/2");
+	}
+}
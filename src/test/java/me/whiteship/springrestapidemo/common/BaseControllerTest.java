@@ -1,17 +1,34 @@
 package me.whiteship.springrestapidemo.common;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.accounts.AccountService;
 import org.junit.Ignore;
 import org.junit.runner.RunWith;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.util.Base64Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -28,4 +45,46 @@ public abstract class BaseControllerTest {
 
 	@Autowired
 	protected ModelMapper modelMapper;
-}
\ No newline at end of file
+
+	@Autowired
+	protected AccountService accountService;
+
+	@Value("${app.security.client-id:myApp}")
+	protected String clientId;
+
+	@Value("${app.security.client-secret:pass}")
+	protected String clientSecret;
+
+	protected ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+		ResultActions resultActions = this.mockMvc.perform(requestBuilder);
+		MvcResult mvcResult = resultActions.andReturn();
+		if (mvcResult.getRequest().isAsyncStarted()) {
+			return this.mockMvc.perform(asyncDispatch(mvcResult));
+		}
+		return resultActions;
+	}
+
+	protected String getBearerToken() throws Exception {
+		return "Bearer " + getAccessToken();
+	}
+
+	protected String getAccessToken() throws Exception {
+		String username = "user-" + UUID.randomUUID() + "@email.com";
+		String password = "pass";
+		this.accountService.saveAccount(Account.builder()
+				.email(username)
+				.password(password)
+				.roles(Collections.singleton(AccountRole.USER))
+				.build());
+
+		String credentials = this.clientId + ":" + this.clientSecret;
+		String response = this.mockMvc.perform(post("/oauth/token")
+				.header(HttpHeaders.AUTHORIZATION, "Basic " + Base64Utils.encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+				.param("username", username)
+				.param("password", password)
+				.param("grant_type", "password"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return this.objectMapper.readTree(response).get("access_token").asText();
+	}
+}
@@ -0,0 +1,111 @@
+package me.whiteship.springrestapidemo.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.db-executor.pool-size=1", "app.db-executor.queue-capacity=1"})
+public class DbExecutorTest extends BaseControllerTest {
+	@Autowired
+	DbExecutor dbExecutor;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	@TestDescription("큐가 가득 차면 작업을 기다리게 하지 않고 바로 거절한다")
+	public void rejectWhenSaturated() throws Exception {
+		double rejected = rejectedCount();
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Integer> busy = this.dbExecutor.supply(() -> {
+			running.countDown();
+			await(release);
+			return 1;
+		});
+		running.await(5, TimeUnit.SECONDS);
+		CompletableFuture<Integer> queued = this.dbExecutor.supply(() -> 2);
+
+		assertThat(this.meterRegistry.get("executor.queued").tag("name", "db").gauge().value()).isEqualTo(1);
+		assertThatThrownBy(() -> this.dbExecutor.supply(() -> 3)).isInstanceOf(TaskRejectedException.class);
+		assertThat(rejectedCount()).isEqualTo(rejected + 1);
+
+		release.countDown();
+		assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+	}
+
+	@Test
+	@TestDescription("풀이 가득 차면 스트리밍 응답도 기다리게 하지 않고 503으로 거절한다")
+	public void rejectStreamingWhenSaturated() throws Exception {
+		String bearerToken = getBearerToken();
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Integer> busy = this.dbExecutor.supply(() -> {
+			running.countDown();
+			await(release);
+			return 1;
+		});
+		running.await(5, TimeUnit.SECONDS);
+		CompletableFuture<Integer> queued = this.dbExecutor.supply(() -> 2);
+
+		MvcResult rejectedResult = this.mockMvc.perform(get("/api/events/export").header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+				.andReturn();
+		// the rejection is also dispatched as the async result, so the container closes the request right away
+		assertThat(WebAsyncUtils.getAsyncManager(rejectedResult.getRequest()).getConcurrentResult())
+				.isInstanceOf(TaskRejectedException.class);
+
+		release.countDown();
+		busy.get(5, TimeUnit.SECONDS);
+		queued.get(5, TimeUnit.SECONDS);
+		perform(get("/api/events/export").header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@TestDescription("요청 정보를 작업 스레드에서도 쓸 수 있다")
+	public void propagateRequestAttributes() throws Exception {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/events")));
+		try {
+			String uri = this.dbExecutor.supply(() -> ServletUriComponentsBuilder.fromCurrentRequest().toUriString())
+					.get(5, TimeUnit.SECONDS);
+
+			assertThat(uri).isEqualTo("http://localhost/api/events");
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	private double rejectedCount() {
+		return this.meterRegistry.get("executor.rejected").tag("name", "db").functionCounter().count();
+	}
+
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedTimerWheelTest {
+
+	@Test
+	@TestDescription("마감 시각이 지난 키만 꺼내고, 마감 시각을 앞당겨 꺼내지는 않는다")
+	public void advance() {
+		HashedTimerWheel<String> wheel = new HashedTimerWheel<>(1_000, 8, 0);
+		wheel.schedule("a", 1_500);
+		wheel.schedule("b", 3_000);
+		wheel.schedule("c", 20_000);
+
+		assertThat(wheel.advance(1_999)).isEmpty();
+		assertThat(wheel.advance(2_000)).containsExactly("a");
+		assertThat(wheel.advance(3_000)).containsExactly("b");
+		// c hashes into a bucket the wheel passes twice before its deadline
+		assertThat(wheel.advance(12_000)).isEmpty();
+		assertThat(wheel.contains("c")).isTrue();
+		assertThat(wheel.advance(20_000)).containsExactly("c");
+		assertThat(wheel.size()).isEqualTo(0);
+	}
+
+	@Test
+	@TestDescription("다시 예약하면 이전 마감 시각을 버리고, 취소한 키와 지난 마감 시각도 처리한다")
+	public void rescheduleAndCancel() {
+		HashedTimerWheel<String> wheel = new HashedTimerWheel<>(1_000, 8, 10_000);
+		wheel.schedule("a", 11_000);
+		wheel.schedule("a", 15_000);
+		wheel.schedule("b", 12_000);
+		wheel.schedule("late", 1_000);
+		assertThat(wheel.cancel("b")).isTrue();
+		assertThat(wheel.cancel("b")).isFalse();
+
+		assertThat(wheel.advance(14_000)).containsExactly("late");
+		assertThat(wheel.advance(15_000)).containsExactly("a");
+	}
+
+	@Test
+	@TestDescription("한 바퀴보다 오래 멈췄다가 돌아도 지난 키를 모두 꺼낸다")
+	public void advanceAfterLongPause() {
+		HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(1_000, 16, 0);
+		IntStream.range(1, 101).forEach(i -> wheel.schedule(i, i * 1_000L));
+
+		assertThat(wheel.advance(60_000)).hasSize(60).doesNotContain(61);
+		assertThat(wheel.size()).isEqualTo(40);
+		assertThat(wheel.advance(1_000_000)).hasSize(40);
+	}
+}
@@ -0,0 +1,41 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.rules.ExternalResource;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Supplier;
+
+/**
+ * Turns Hibernate statistics on for one test. The factory is looked up lazily, since the rule is created before
+ * Spring injects the test instance.
+ */
+public class HibernateStatistics extends ExternalResource {
+	private final Supplier<EntityManagerFactory> entityManagerFactory;
+	private Statistics statistics;
+
+	public HibernateStatistics(Supplier<EntityManagerFactory> entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	protected void before() {
+		this.statistics = this.entityManagerFactory.get().unwrap(SessionFactory.class).getStatistics();
+		this.statistics.setStatisticsEnabled(true);
+		this.statistics.clear();
+	}
+
+	@Override
+	protected void after() {
+		this.statistics.setStatisticsEnabled(false);
+	}
+
+	/**
+	 * @return the statistics, counting only what happens from now on
+	 */
+	public Statistics reset() {
+		this.statistics.clear();
+		return this.statistics;
+	}
+}
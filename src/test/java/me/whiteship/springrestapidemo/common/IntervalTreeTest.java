@@ -0,0 +1,79 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalTreeTest {
+
+	@Test
+	@TestDescription("겹치는 구간만 시작 순서대로 찾는다")
+	public void overlapping() {
+		IntervalTree<Integer, String> tree = new IntervalTree<>();
+		tree.put(1, 10, 20, "a");
+		tree.put(2, 15, 16, "b");
+		tree.put(3, 21, 30, "c");
+		tree.put(4, 0, 9, "d");
+
+		assertThat(tree.overlapping(16, 21)).containsExactly("a", "b", "c");
+		assertThat(tree.overlapping(9, 10)).containsExactly("d", "a");
+		assertThat(tree.overlapping(31, 40)).isEmpty();
+		assertThat(tree.overlapping(15, 15)).containsExactly("a", "b");
+	}
+
+	@Test
+	@TestDescription("같은 id로 다시 넣으면 구간을 옮기고, 시작과 끝이 없으면 빼낸다")
+	public void replaceAndRemove() {
+		IntervalTree<Integer, String> tree = new IntervalTree<>();
+		tree.put(1, 10, 20, "a");
+		tree.put(1, 30, 40, "a'");
+		assertThat(tree.overlapping(10, 20)).isEmpty();
+		assertThat(tree.overlapping(35, 35)).containsExactly("a'");
+
+		tree.put(1, null, 40, "a''");
+		assertThat(tree.size()).isEqualTo(0);
+		tree.put(2, 5, 6, "b");
+		tree.remove(2);
+		assertThat(tree.overlapping(0, 100)).isEmpty();
+	}
+
+	@Test
+	@TestDescription("무작위로 넣고 옮기고 지워도 전수 비교 결과와 같다")
+	public void matchesBruteForce() {
+		Random random = new Random(42);
+		IntervalTree<Integer, Integer> tree = new IntervalTree<>();
+		Map<Integer, int[]> intervals = new HashMap<>();
+
+		for (int i = 0; i < 5_000; i++) {
+			int id = random.nextInt(500);
+			if (random.nextInt(10) == 0) {
+				tree.remove(id);
+				intervals.remove(id);
+			} else {
+				int start = random.nextInt(10_000);
+				int end = start + random.nextInt(300);
+				tree.put(id, start, end, id);
+				intervals.put(id, new int[] {start, end});
+			}
+
+			if (i % 50 == 0) {
+				int from = random.nextInt(10_000);
+				int to = from + random.nextInt(500);
+				List<Integer> expected = intervals.entrySet().stream()
+						.filter(e -> e.getValue()[0] <= to && e.getValue()[1] >= from)
+						.sorted(Comparator.<Map.Entry<Integer, int[]>>comparingInt(e -> e.getValue()[0]).thenComparing(Map.Entry::getKey))
+						.map(Map.Entry::getKey)
+						.collect(Collectors.toList());
+				assertThat(tree.overlapping(from, to)).containsExactlyElementsOf(expected);
+				assertThat(tree.size()).isEqualTo(intervals.size());
+			}
+		}
+	}
+}
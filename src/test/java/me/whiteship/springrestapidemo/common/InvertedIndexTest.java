@@ -0,0 +1,85 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvertedIndexTest {
+
+	@Test
+	@TestDescription("글자와 숫자가 아닌 문자로 나누고 소문자로 바꾼다")
+	public void tokenize() {
+		assertThat(InvertedIndex.tokenize("Spring REST-API, 강남역 D2 스타트업 팩토리!"))
+				.containsExactly("spring", "rest", "api", "강남역", "d2", "스타트업", "팩토리");
+		assertThat(InvertedIndex.tokenize(null)).isEmpty();
+	}
+
+	@Test
+	@TestDescription("모든 단어로 시작하는 단어를 가진 문서만 찾는다")
+	public void matchAllTokensWithPrefix() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1, terms("spring", 1, "boot", 1));
+		index.put(2, terms("spring", 1, "batch", 1));
+		index.put(3, terms("springfield", 1));
+
+		assertThat(index.search("spring b", 10)).containsExactlyInAnyOrder(1, 2);
+		assertThat(index.search("spring bo", 10)).containsExactly(1);
+		assertThat(index.search("spr", 10)).containsExactlyInAnyOrder(1, 2, 3);
+		assertThat(index.search("spr boot", 10)).containsExactly(1);
+		assertThat(index.search("boot springf", 10)).isEmpty();
+		assertThat(index.search("  ", 10)).isEmpty();
+	}
+
+	@Test
+	@TestDescription("가중치가 높고 드문 단어를 가진 문서를 앞에 둔다")
+	public void rankByWeightAndRarity() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1, terms("spring", 1, "rest", 1));
+		index.put(2, terms("spring", 3));
+		index.put(3, terms("spring", 1));
+		index.put(4, terms("rest", 1));
+
+		assertThat(index.search("spring", 10)).containsExactly(2, 1, 3);
+		assertThat(index.search("spring", 2)).containsExactly(2, 1);
+	}
+
+	@Test
+	@TestDescription("다시 넣으면 이전 단어는 지우고 새 단어로 찾는다")
+	public void replaceDocument() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(1, terms("spring", 1));
+		index.put(1, terms("summer", 1));
+
+		assertThat(index.search("spring", 10)).isEmpty();
+		assertThat(index.search("summer", 10)).containsExactly(1);
+		assertThat(index.size()).isEqualTo(1);
+
+		index.remove(1);
+		assertThat(index.search("summer", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(0);
+	}
+
+	@Test
+	@TestDescription("접두어로 시작하는 단어가 너무 많으면 여러 문서에 있는 단어부터 찾는다")
+	public void expandPrefixByDocumentFrequency() {
+		InvertedIndex index = new InvertedIndex();
+		for (int id = 1; id <= 100; id++) {
+			index.put(id, terms(String.format("tag%03d", id), 1));
+		}
+		index.put(101, terms("tag100", 1));
+
+		assertThat(index.search("tag", 200)).hasSize(65).contains(100, 101);
+		assertThat(index.search("tag09", 200)).containsExactlyInAnyOrder(90, 91, 92, 93, 94, 95, 96, 97, 98, 99);
+	}
+
+	private Map<String, Float> terms(Object... termsAndWeights) {
+		Map<String, Float> terms = new HashMap<>();
+		for (int i = 0; i < termsAndWeights.length; i += 2) {
+			terms.put((String) termsAndWeights[i], ((Integer) termsAndWeights[i + 1]).floatValue());
+		}
+		return terms;
+	}
+}
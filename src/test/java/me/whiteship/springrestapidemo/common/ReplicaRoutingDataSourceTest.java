@@ -0,0 +1,83 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+	@Test
+	@TestDescription("복제본 읽기로 표시한 읽기 전용 트랜잭션만 복제본에 번갈아 보내고 나머지는 primary로 보낸다")
+	public void routeReplicaReads() {
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"),
+				Arrays.asList(database("replica-a"), database("replica-b")), Duration.ofSeconds(10));
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		TransactionTemplate readOnly = transactionTemplate(dataSource, true);
+		TransactionTemplate readWrite = transactionTemplate(dataSource, false);
+
+		assertThat(node(dataSource)).isEqualTo("primary");
+		assertThat(node(readOnly, dataSource)).isEqualTo("primary");
+
+		List<String> replicaReads = IntStream.range(0, 4)
+				.mapToObj(i -> ReplicaRoutingDataSource.readFromReplica(() -> node(readOnly, dataSource)))
+				.collect(Collectors.toList());
+		assertThat(replicaReads).containsOnly("replica-a", "replica-b");
+		assertThat(Collections.frequency(replicaReads, "replica-a")).isEqualTo(2);
+		assertThat(ReplicaRoutingDataSource.readFromReplica(() -> node(readWrite, dataSource))).isEqualTo("primary");
+	}
+
+	@Test
+	@TestDescription("연결할 수 없는 복제본은 잠시 빼고, 남은 복제본이 없으면 primary에서 읽는다")
+	public void fallBackWhenReplicaIsDown() {
+		DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";IFEXISTS=TRUE", "sa", "");
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"),
+				Arrays.asList(broken, database("replica")), Duration.ofMinutes(1));
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+		assertThat(IntStream.range(0, 4).mapToObj(i -> ReplicaRoutingDataSource.readFromReplica(() -> node(dataSource))))
+				.containsOnly("replica");
+		assertThat(routing.availableReplicas()).containsExactly("replica-1");
+
+		ReplicaRoutingDataSource allDown = new ReplicaRoutingDataSource(database("primary"),
+				Arrays.asList(broken), Duration.ofMinutes(1));
+		assertThat(ReplicaRoutingDataSource.readFromReplica(() -> node(new LazyConnectionDataSourceProxy(allDown))))
+				.isEqualTo("primary");
+		assertThat(allDown.availableReplicas()).isEmpty();
+	}
+
+	private static String node(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForObject("select name from node", String.class);
+	}
+
+	private static String node(TransactionTemplate transactionTemplate, DataSource dataSource) {
+		return transactionTemplate.execute(status -> node(dataSource));
+	}
+
+	private static TransactionTemplate transactionTemplate(DataSource dataSource, boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate;
+	}
+
+	private static DataSource database(String name) {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table node (name varchar(20))");
+		jdbcTemplate.update("insert into node values (?)", name);
+		return dataSource;
+	}
+}
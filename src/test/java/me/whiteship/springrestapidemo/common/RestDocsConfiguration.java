@@ -3,16 +3,44 @@ package me.whiteship.springrestapidemo.common;
 import org.springframework.boot.test.autoconfigure.restdocs.RestDocsMockMvcConfigurationCustomizer;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
-import org.springframework.restdocs.mockmvc.MockMvcRestDocumentationConfigurer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.OperationRequest;
+import org.springframework.restdocs.operation.OperationResponse;
+import org.springframework.restdocs.operation.preprocess.OperationPreprocessor;
 
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
 
 @TestConfiguration
 public class RestDocsConfiguration {
+	private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
 	@Bean
 	public RestDocsMockMvcConfigurationCustomizer restDocsMockMvcConfigurationCustomizer() {
 		return configurer -> configurer.operationPreprocessors()
-				.withRequestDefaults(prettyPrint())
-				.withResponseDefaults(prettyPrint());
+				.withRequestDefaults(prettyPrintUnlessNdjson())
+				.withResponseDefaults(prettyPrintUnlessNdjson());
+	}
+
+	/**
+	 * Pretty printing would keep only the first line of an NDJSON body.
+	 */
+	private static OperationPreprocessor prettyPrintUnlessNdjson() {
+		OperationPreprocessor prettyPrint = prettyPrint();
+		return new OperationPreprocessor() {
+			@Override
+			public OperationRequest preprocess(OperationRequest request) {
+				return isNdjson(request.getHeaders()) ? request : prettyPrint.preprocess(request);
+			}
+
+			@Override
+			public OperationResponse preprocess(OperationResponse response) {
+				return isNdjson(response.getHeaders()) ? response : prettyPrint.preprocess(response);
+			}
+		};
+	}
+
+	private static boolean isNdjson(HttpHeaders headers) {
+		return headers.getContentType() != null && APPLICATION_NDJSON.includes(headers.getContentType());
 	}
 }
@@ -0,0 +1,54 @@
+package me.whiteship.springrestapidemo.common;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryLogTest {
+
+	@Test
+	@TestDescription("리터럴과 IN 목록 길이가 달라도 같은 쿼리는 같은 지문을 가진다")
+	public void fingerprint() {
+		String first = SlowQueryLog.fingerprint("select event0_.id as id1_1_ from event event0_\n  where event0_.name = 'Spring' and event0_.base_price > 100 and event0_.id in (1, 2, 3)");
+		String second = SlowQueryLog.fingerprint("SELECT event0_.id AS id1_1_ FROM event event0_ WHERE event0_.name = 'it''s' AND event0_.base_price > 2.5 AND event0_.id IN (?)");
+
+		assertThat(first).isEqualTo("select event0_.id as id1_1_ from event event0_ where event0_.name = ? and event0_.base_price > ? and event0_.id in (?+)");
+		assertThat(second).isEqualTo(first);
+	}
+
+	@Test
+	@TestDescription("임계치를 넘긴 쿼리만 기록하고 샘플링 비율이 0이면 나머지는 건너뛴다")
+	public void reason() {
+		SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(200), 0.0);
+
+		assertThat(slowQueryLog.reason(Duration.ofMillis(250).toNanos())).isEqualTo("slow");
+		assertThat(slowQueryLog.reason(Duration.ofMillis(10).toNanos())).isNull();
+		assertThat(new SlowQueryLog(Duration.ofMillis(200), 1.0).reason(Duration.ofMillis(10).toNanos())).isEqualTo("sampled");
+	}
+
+	@Test
+	@TestDescription("하이버네이트가 실행한 문장의 SQL과 실행 시간을 느린 쿼리 로그에 넘긴다")
+	public void sessionListener() {
+		List<String> logged = new ArrayList<>();
+		SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(200), 0.0) {
+			@Override
+			public void executed(String sql, long elapsedNanos) {
+				logged.add(sql);
+			}
+		};
+		SqlMetricsSessionListener listener = new SqlMetricsSessionListener();
+
+		SqlMetricsSessionListener.statementInspector(slowQueryLog).inspect("select count(*) from event");
+		listener.jdbcExecuteStatementStart();
+		listener.jdbcExecuteStatementEnd();
+		SqlMetricsSessionListener.statementInspector(slowQueryLog).inspect("insert into event (id) values (?)");
+		listener.jdbcExecuteBatchStart();
+		listener.jdbcExecuteBatchEnd();
+
+		assertThat(logged).containsExactly("select count(*) from event", "insert into event (id) values (?)");
+	}
+}
@@ -0,0 +1,82 @@
+package me.whiteship.springrestapidemo.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.whiteship.springrestapidemo.events.EventRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+		"app.sql-metrics.count-rows=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class SqlMetricsTest {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@After
+	public void resetRequestAttributes() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	@TestDescription("요청마다 실행한 SQL 문장 수와 읽은 행 수를 요청 URI 별로 기록한다")
+	public void recordStatementsAndRowsPerRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/count");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/events/count");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		SqlMetricsInterceptor interceptor = new SqlMetricsInterceptor(this.meterRegistry, true);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		interceptor.preHandle(request, response, null);
+		this.eventRepository.count();
+		this.eventRepository.count();
+		interceptor.afterCompletion(request, response, null, null);
+
+		assertThat(this.meterRegistry.get("http.server.requests.sql.statements")
+				.tags("uri", "/api/events/count", "method", "GET").summary().totalAmount()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("http.server.requests.sql.rows")
+				.tags("uri", "/api/events/count", "method", "GET").summary().totalAmount()).isEqualTo(2);
+		assertThat(this.meterRegistry.get("http.server.requests.sql.time")
+				.tags("uri", "/api/events/count", "method", "GET").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	@TestDescription("리포지토리 메소드 호출 시간을 리포지토리와 메소드 별로 기록한다")
+	public void timeRepositoryInvocations() {
+		long before = this.meterRegistry.find("repository.invocations")
+				.tags("repository", "EventRepository", "method", "existsById").timers().stream()
+				.mapToLong(timer -> timer.count()).sum();
+
+		this.eventRepository.existsById(-1);
+
+		assertThat(this.meterRegistry.get("repository.invocations")
+				.tags("repository", "EventRepository", "method", "existsById").timer().count()).isEqualTo(before + 1);
+	}
+
+	@Test
+	@TestDescription("커넥션 풀과 하이버네이트 통계를 같은 레지스트리로 노출한다")
+	public void exposePoolAndHibernateMetrics() {
+		this.eventRepository.count();
+
+		assertThat(this.meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+		assertThat(this.meterRegistry.find("hikaricp.connections.pending").gauge()).isNotNull();
+		assertThat(this.meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+	}
+}
@@ -0,0 +1,36 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.common.BaseControllerTest;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AuthServerConfigTest extends BaseControllerTest {
+	@Autowired
+	DataSource dataSource;
+
+	@Test
+	@TestDescription("발급받은 access token으로 API를 호출하고, 토큰이 없거나 틀리면 401로 응답한다")
+	public void authorizeWithIssuedToken() throws Exception {
+		String accessToken = getAccessToken();
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject(
+				"select count(*) from oauth_access_token where expiration is not null", Integer.class)).isGreaterThan(0);
+
+		this.mockMvc.perform(get("/api").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_links.events").exists());
+		this.mockMvc.perform(get("/api"))
+				.andExpect(status().isUnauthorized());
+		this.mockMvc.perform(get("/api").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken + "x"))
+				.andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,90 @@
+package me.whiteship.springrestapidemo.configs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class CachingJdbcTokenStoreTest {
+	@Autowired
+	TokenStore tokenStore;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Test
+	public void readsFromNearCacheAfterStore() {
+		DefaultOAuth2AccessToken token = accessToken(new Date(System.currentTimeMillis() + 60_000));
+		tokenStore.storeAccessToken(token, authentication("cached@email.com"));
+		assertThat(countAccessTokens("cached@email.com")).isEqualTo(1);
+
+		new JdbcTemplate(dataSource).update("delete from oauth_access_token where user_name = ?", "cached@email.com");
+
+		assertThat(tokenStore.readAccessToken(token.getValue())).isEqualTo(token);
+		assertThat(tokenStore.readAuthentication(token).getName()).isEqualTo("cached@email.com");
+	}
+
+	@Test
+	public void removeEvictsNearCache() {
+		DefaultOAuth2AccessToken token = accessToken(new Date(System.currentTimeMillis() + 60_000));
+		tokenStore.storeAccessToken(token, authentication("keesun@email.com"));
+
+		tokenStore.removeAccessToken(token);
+
+		assertThat(tokenStore.readAccessToken(token.getValue())).isNull();
+		assertThat(tokenStore.readAuthentication(token.getValue())).isNull();
+	}
+
+	@Test
+	public void sweepsExpiredTokens() {
+		DefaultOAuth2AccessToken expired = accessToken(new Date(System.currentTimeMillis() - 1_000));
+		DefaultOAuth2AccessToken valid = accessToken(new Date(System.currentTimeMillis() + 60_000));
+		tokenStore.storeAccessToken(expired, authentication("expired@email.com"));
+		tokenStore.storeAccessToken(valid, authentication("valid@email.com"));
+
+		((CachingJdbcTokenStore) tokenStore).sweepExpiredTokens();
+
+		assertThat(countAccessTokens("expired@email.com")).isEqualTo(0);
+		assertThat(countAccessTokens("valid@email.com")).isEqualTo(1);
+		assertThat(tokenStore.readAccessToken(expired.getValue())).isNull();
+	}
+
+	private int countAccessTokens(String username) {
+		return new JdbcTemplate(dataSource).queryForObject(
+				"select count(*) from oauth_access_token where user_name = ? and expiration is not null",
+				Integer.class, username);
+	}
+
+	private DefaultOAuth2AccessToken accessToken(Date expiration) {
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+		token.setExpiration(expiration);
+		return token;
+	}
+
+	private OAuth2Authentication authentication(String username) {
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp", AuthorityUtils.NO_AUTHORITIES,
+				true, Collections.singleton("read"), null, null, null, null);
+		UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(username, null,
+				AuthorityUtils.createAuthorityList("ROLE_USER"));
+		return new OAuth2Authentication(request, user);
+	}
+}
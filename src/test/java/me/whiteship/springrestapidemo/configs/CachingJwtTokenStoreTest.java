@@ -0,0 +1,88 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.accounts.AccountAdapter;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingJwtTokenStoreTest {
+	AccountJwtAccessTokenConverter converter;
+	CachingJwtTokenStore tokenStore;
+
+	@Before
+	public void setUp() throws Exception {
+		converter = new AccountJwtAccessTokenConverter();
+		converter.setSigningKey("test-signing-key");
+		converter.afterPropertiesSet();
+		tokenStore = new CachingJwtTokenStore(converter, 100, Duration.ofMinutes(1));
+	}
+
+	@Test
+	public void readsAccountFromSignedToken() {
+		OAuth2AccessToken token = issue(new AccountAdapter(7, "keesun@email.com", "pass",
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER")));
+
+		OAuth2Authentication authentication = tokenStore.readAuthentication(token.getValue());
+
+		AccountAdapter principal = (AccountAdapter) authentication.getPrincipal();
+		assertThat(principal.getAccountId()).isEqualTo(7);
+		assertThat(principal.getUsername()).isEqualTo("keesun@email.com");
+		assertThat(authentication.getAuthorities()).extracting("authority")
+				.containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+		assertThat(tokenStore.readAuthentication(token.getValue())).isSameAs(authentication);
+		assertThat(tokenStore.readAccessToken(token.getValue()).getAdditionalInformation())
+				.containsEntry(AccountJwtAccessTokenConverter.ACCOUNT_ID, 7);
+	}
+
+	@Test
+	public void rejectsTokenSignedWithAnotherKey() throws Exception {
+		AccountJwtAccessTokenConverter otherConverter = new AccountJwtAccessTokenConverter();
+		otherConverter.setSigningKey("other-signing-key");
+		otherConverter.afterPropertiesSet();
+		OAuth2AccessToken forged = otherConverter.enhance(new DefaultOAuth2AccessToken("forged"),
+				authentication(new AccountAdapter(1, "admin@email.com", "pass", AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+
+		assertThatThrownBy(() -> tokenStore.readAuthentication(forged.getValue()))
+				.isInstanceOf(InvalidTokenException.class);
+	}
+
+	@Test
+	public void requiresSigningKeyInJwtMode() {
+		SecurityConfig securityConfig = new SecurityConfig();
+		securityConfig.tokenMode = "jwt";
+		securityConfig.jwtSigningKey = "";
+
+		assertThatThrownBy(securityConfig::accessTokenConverter)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("app.security.jwt.signing-key");
+
+		securityConfig.jwtSigningKey = "shared-signing-key";
+		assertThat(securityConfig.accessTokenConverter()).isInstanceOf(AccountJwtAccessTokenConverter.class);
+	}
+
+	private OAuth2AccessToken issue(AccountAdapter account) {
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("token");
+		token.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+		return converter.enhance(token, authentication(account));
+	}
+
+	private OAuth2Authentication authentication(AccountAdapter account) {
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp", AuthorityUtils.NO_AUTHORITIES,
+				true, Collections.singleton("read"), null, null, null, null);
+		return new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken(account, null, account.getAuthorities()));
+	}
+}
@@ -0,0 +1,47 @@
+package me.whiteship.springrestapidemo.configs;
+
+import me.whiteship.springrestapidemo.accounts.AccountAdapter;
+import me.whiteship.springrestapidemo.common.BaseControllerTest;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+		"app.security.token-mode=jwt",
+		"app.security.jwt.signing-key=test-signing-key"
+})
+public class JwtAuthServerConfigTest extends BaseControllerTest {
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	TokenStore tokenStore;
+
+	@Test
+	@TestDescription("jwt 모드에서는 서명된 토큰을 발급하고 토큰 테이블 없이 API 호출을 인가한다")
+	public void authorizeWithSignedToken() throws Exception {
+		String accessToken = getAccessToken();
+
+		assertThat(this.tokenStore).isInstanceOf(CachingJwtTokenStore.class);
+		assertThat(accessToken.split("\\.")).hasSize(3);
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject("select count(*) from oauth_access_token", Integer.class)).isEqualTo(0);
+		assertThat(this.tokenStore.readAuthentication(accessToken).getPrincipal()).isInstanceOf(AccountAdapter.class);
+
+		this.mockMvc.perform(get("/api").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_links.events").exists());
+		this.mockMvc.perform(get("/api").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken.substring(0, accessToken.length() - 2)))
+				.andExpect(status().isUnauthorized());
+	}
+}
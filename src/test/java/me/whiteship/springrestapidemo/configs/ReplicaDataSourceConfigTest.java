@@ -0,0 +1,99 @@
+package me.whiteship.springrestapidemo.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.accounts.AccountService;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import me.whiteship.springrestapidemo.events.Event;
+import me.whiteship.springrestapidemo.events.EventController;
+import me.whiteship.springrestapidemo.events.EventRepository;
+import me.whiteship.springrestapidemo.events.EventVersionCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"app.datasource.replicas[0].jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+		"app.datasource.replicas[0].username=sa"
+})
+@ActiveProfiles("test")
+public class ReplicaDataSourceConfigTest {
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventController eventController;
+
+	@Autowired
+	AccountService accountService;
+
+	@Autowired
+	EventVersionCache eventVersionCache;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+	@Before
+	public void copySchemaToReplica() {
+		if (this.replica.queryForObject("select count(*) from information_schema.tables where table_name = 'EVENT'", Integer.class) > 0) {
+			return;
+		}
+		new JdbcTemplate(this.dataSource).queryForList("script nodata", String.class).forEach(this.replica::execute);
+	}
+
+	@Test
+	@TestDescription("조회 요청은 복제본에서 읽고 쓰기와 그 밖의 읽기는 primary에서 한다")
+	public void readsGoToReplica() {
+		Event event = this.eventRepository.save(Event.builder().name("primary only").build());
+		assertThat(this.eventRepository.findById(event.getId())).isPresent();
+
+		assertThat(this.eventController.getEvent(event.getId(), null).join().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+		this.replica.update("insert into event (id, name, base_price, max_price, limit_of_enrollment, reserved_seats, offline, free, version) " +
+				"values (?, 'replicated', 0, 0, 0, 0, false, true, 0)", event.getId());
+		assertThat(this.eventController.getEvent(event.getId(), null).join().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(this.eventVersionCache.get(event.getId())).isNull();
+
+		assertThat(this.meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+		assertThat(this.meterRegistry.find("hikaricp.connections").tag("pool", "replica-0").gauge()).isNotNull();
+	}
+
+	@Test
+	@TestDescription("로그인할 계정은 복제본에서 읽는다")
+	public void loadUserFromReplica() {
+		this.replica.update("insert into account (id, email, password, name) values (1000, 'replica@email.com', '{noop}pass', 'replica')");
+
+		assertThat(this.accountService.loadUserByUsername("replica@email.com").getUsername()).isEqualTo("replica@email.com");
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject(
+				"select count(*) from account where email = 'replica@email.com'", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	@TestDescription("복제본에 아직 없는 계정은 primary에서 읽어 가입 직후에도 로그인할 수 있다")
+	public void loadUserFromPrimaryWhenNotReplicated() {
+		this.accountService.saveAccount(Account.builder()
+				.email("signed-up@email.com").password("pass").roles(Collections.singleton(AccountRole.USER)).build());
+
+		assertThat(this.accountService.loadUserByUsername("signed-up@email.com").getUsername()).isEqualTo("signed-up@email.com");
+	}
+}
@@ -0,0 +1,246 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRepository;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EnrollmentServiceTest {
+	@Autowired
+	EnrollmentService enrollmentService;
+
+	@Autowired
+	EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	DataSource dataSource;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Test
+	@TestDescription("동시에 몰린 신청 중 정확히 limitOfEnrollment 만큼만 자리를 잡고 모두 저장된다")
+	public void neverOversell() throws Exception {
+		int limit = 100;
+		List<Account> accounts = accounts("rush", 2_000);
+		Event event = this.eventRepository.save(event(limit, EventStatus.BEGAN_ENROLLMENT));
+
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<SeatReservation>> futures = new ArrayList<>();
+			for (Account account : accounts) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return this.enrollmentService.enroll(event.getId(), account.getId());
+				}));
+			}
+			start.countDown();
+
+			Map<SeatReservation, Integer> reservations = new EnumMap<>(SeatReservation.class);
+			for (Future<SeatReservation> future : futures) {
+				reservations.merge(future.get(10, TimeUnit.SECONDS), 1, Integer::sum);
+			}
+
+			assertThat(reservations.get(SeatReservation.RESERVED)).isEqualTo(limit);
+			assertThat(reservations.get(SeatReservation.FULL)).isEqualTo(accounts.size() - limit);
+			assertThat(this.enrollmentService.remainingSeats(event.getId())).isEqualTo(0);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(awaitEnrollments(event, limit)).isEqualTo(limit);
+	}
+
+	@Test
+	@TestDescription("등록 중이 아닌 이벤트와 이미 신청한 계정은 자리를 잡지 못하고, 재시작하면 저장된 신청으로 자리를 되살린다")
+	public void rejectAndRebuild() throws Exception {
+		Account account = accounts("single", 1).get(0);
+		Event event = this.eventRepository.save(event(10, EventStatus.PUBLISHED));
+
+		assertThat(this.enrollmentService.enroll(event.getId(), account.getId())).isEqualTo(SeatReservation.NOT_OPEN);
+		assertThat(this.enrollmentService.enroll(Integer.MAX_VALUE, account.getId())).isEqualTo(SeatReservation.NOT_FOUND);
+
+		event.setEventStatus(EventStatus.BEGAN_ENROLLMENT);
+		Event openEvent = this.eventRepository.save(event);
+		assertThat(this.enrollmentService.enroll(openEvent.getId(), account.getId())).isEqualTo(SeatReservation.RESERVED);
+		assertThat(this.enrollmentService.enroll(openEvent.getId(), account.getId())).isEqualTo(SeatReservation.ALREADY_ENROLLED);
+		assertThat(awaitEnrollments(openEvent, 1)).isEqualTo(1);
+
+		EnrollmentService rebuilt = otherNode();
+		assertThat(rebuilt.enroll(openEvent.getId(), account.getId())).isEqualTo(SeatReservation.NOT_READY);
+		rebuild(rebuilt);
+
+		// the other nine seats are in the lease of the node that took the first enrollment
+		assertThat(rebuilt.remainingSeats(openEvent.getId())).isEqualTo(0);
+		assertThat(rebuilt.enroll(openEvent.getId(), account.getId())).isEqualTo(SeatReservation.ALREADY_ENROLLED);
+	}
+
+	@Test
+	@TestDescription("여러 서버가 신청을 받아도 DB에서 빌려 간 자리 묶음으로 limitOfEnrollment를 넘지 않는다")
+	public void neverOversellAcrossNodes() {
+		List<Account> accounts = accounts("nodes", 4);
+		Event event = this.eventRepository.save(event(3, EventStatus.BEGAN_ENROLLMENT));
+		EnrollmentService first = otherNode(2);
+		EnrollmentService second = otherNode(2);
+		rebuild(first);
+		rebuild(second);
+
+		assertThat(first.enroll(event.getId(), accounts.get(0).getId())).isEqualTo(SeatReservation.RESERVED);
+		assertThat(reservedSeats(event)).isEqualTo(2);
+		assertThat(second.enroll(event.getId(), accounts.get(1).getId())).isEqualTo(SeatReservation.RESERVED);
+		assertThat(reservedSeats(event)).isEqualTo(3);
+		assertThat(second.enroll(event.getId(), accounts.get(2).getId())).isEqualTo(SeatReservation.FULL);
+		assertThat(first.enroll(event.getId(), accounts.get(2).getId())).isEqualTo(SeatReservation.RESERVED);
+		assertThat(first.enroll(event.getId(), accounts.get(3).getId())).isEqualTo(SeatReservation.FULL);
+		assertThat(first.remainingSeats(event.getId())).isEqualTo(0);
+		assertThat(reservedSeats(event)).isEqualTo(3);
+	}
+
+	@Test
+	@TestDescription("등록이 끝나면 빌려 두고 쓰지 않은 자리를 DB에 돌려준다")
+	public void returnLeaseWhenEnrollmentCloses() {
+		Account account = accounts("lease", 1).get(0);
+		Event event = this.eventRepository.save(event(10, EventStatus.BEGAN_ENROLLMENT));
+		EnrollmentService node = otherNode(5);
+		rebuild(node);
+
+		assertThat(node.enroll(event.getId(), account.getId())).isEqualTo(SeatReservation.RESERVED);
+		assertThat(reservedSeats(event)).isEqualTo(5);
+
+		event.setEventStatus(EventStatus.PUBLISHED);
+		node.eventSaved(new EventSaved(event));
+		assertThat(reservedSeats(event)).isEqualTo(1);
+	}
+
+	@Test
+	@TestDescription("자리를 빌리다 DB 오류가 나면 잡았던 계정을 풀어 다시 신청할 수 있다")
+	public void undoReservationWhenLeaseFails() {
+		Event event = event(10, EventStatus.BEGAN_ENROLLMENT);
+		event.setId(1);
+		EventRepository failingRepository = mock(EventRepository.class);
+		EnrollmentRepository emptyRepository = mock(EnrollmentRepository.class);
+		given(emptyRepository.streamEventAndAccountIds()).willReturn(Stream.empty());
+		given(failingRepository.findSeatCountById(1)).willThrow(new QueryTimeoutException("lock timeout"));
+		EnrollmentService node = new EnrollmentService();
+		node.eventRepository = failingRepository;
+		node.enrollmentRepository = emptyRepository;
+		node.entityManager = mock(EntityManager.class);
+		node.leaseSize = 5;
+		node.restore(event);
+		node.restoreEnrollments();
+		node.loaded();
+
+		assertThatThrownBy(() -> node.enroll(1, 7)).isInstanceOf(QueryTimeoutException.class);
+
+		EventRepository.SeatCount seatCount = mock(EventRepository.SeatCount.class);
+		given(seatCount.getLimitOfEnrollment()).willReturn(10);
+		willReturn(Optional.of(seatCount)).given(failingRepository).findSeatCountById(1);
+		given(failingRepository.leaseSeats(1, 0, 5)).willReturn(1);
+		assertThat(node.enroll(1, 7)).isEqualTo(SeatReservation.RESERVED);
+		assertThat(node.remainingSeats(1)).isEqualTo(9);
+	}
+
+	private int reservedSeats(Event event) {
+		return new JdbcTemplate(this.dataSource).queryForObject("select reserved_seats from event where id = ?", Integer.class, event.getId());
+	}
+
+	private EnrollmentService otherNode() {
+		return otherNode(20);
+	}
+
+	private EnrollmentService otherNode(int leaseSize) {
+		EnrollmentService enrollmentService = new EnrollmentService();
+		enrollmentService.leaseSize = leaseSize;
+		enrollmentService.eventRepository = this.eventRepository;
+		enrollmentService.enrollmentRepository = this.enrollmentRepository;
+		enrollmentService.entityManager = this.entityManager;
+		return enrollmentService;
+	}
+
+	private void rebuild(EnrollmentService enrollmentService) {
+		EventIndexRebuilder rebuilder = new EventIndexRebuilder();
+		rebuilder.eventRepository = this.eventRepository;
+		rebuilder.eventCalendar = new EventCalendar();
+		rebuilder.eventTextIndex = new EventTextIndex();
+		rebuilder.enrollmentService = enrollmentService;
+		rebuilder.entityManager = this.entityManager;
+		this.transactionTemplate.execute(status -> {
+			rebuilder.rebuild();
+			return null;
+		});
+	}
+
+	private int awaitEnrollments(Event event, int expected) throws InterruptedException {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		int count = 0;
+		for (int i = 0; i < 100 && count < expected; i++) {
+			Thread.sleep(100);
+			count = jdbcTemplate.queryForObject("select count(*) from enrollment where event_id = ?", Integer.class, event.getId());
+		}
+		return count;
+	}
+
+	private List<Account> accounts(String prefix, int count) {
+		return this.accountRepository.saveAll(IntStream.range(0, count)
+				.mapToObj(i -> Account.builder().email(prefix + i + "@email.com").password("pass").build())
+				.collect(Collectors.toList()));
+	}
+
+	private Event event(int limitOfEnrollment, EventStatus eventStatus) {
+		LocalDateTime now = LocalDateTime.now();
+		return Event.builder()
+				.name("enrollment")
+				.beginEnrollmentDateTime(now.minusDays(1))
+				.closeEnrollmentDateTime(now.plusDays(1))
+				.beginEventDateTime(now.plusDays(2))
+				.endEventDateTime(now.plusDays(3))
+				.limitOfEnrollment(limitOfEnrollment)
+				.eventStatus(eventStatus)
+				.build();
+	}
+}
@@ -0,0 +1,82 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventBatchServiceTest {
+	@Autowired
+	EventBatchService eventBatchService;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventController eventController;
+
+	@Test
+	@TestDescription("유효한 이벤트만 저장하고 항목별 결과를 돌려준다")
+	public void createEvents() {
+		EventDto wrongPrices = eventDto("wrong prices");
+		wrongPrices.setBasePrice(10000);
+		wrongPrices.setMaxPrice(200);
+		List<EventDto> eventDtos = Arrays.asList(eventDto("first"), new EventDto(), wrongPrices, eventDto("second"), null);
+
+		List<EventBatchResult> results = this.eventBatchService.createEvents(eventDtos);
+
+		assertThat(results).extracting(EventBatchResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+		assertThat(results).extracting(EventBatchResult::getStatus).containsExactly(
+				EventBatchResult.Status.CREATED, EventBatchResult.Status.INVALID,
+				EventBatchResult.Status.INVALID, EventBatchResult.Status.CREATED,
+				EventBatchResult.Status.INVALID);
+		assertThat(results.get(1).getErrors().getFieldErrorCount()).isGreaterThan(0);
+		assertThat(results.get(2).getErrors().getGlobalErrorCount()).isEqualTo(1);
+		assertThat(results.get(4).getErrors().getGlobalError().getCode()).isEqualTo("nullEvent");
+
+		Event saved = this.eventRepository.findById(results.get(3).getId()).get();
+		assertThat(saved.getName()).isEqualTo("second");
+		assertThat(saved.isOffline()).isTrue();
+	}
+
+	@Test
+	@TestDescription("최대 개수를 넘는 배치는 저장하지 않고 413 Payload Too Large로 응답한다")
+	public void createTooManyEvents() {
+		long count = this.eventRepository.count();
+		List<EventDto> eventDtos = Collections.nCopies(this.eventController.maxBatchSize + 1, eventDto("too many"));
+
+		ResponseEntity response = this.eventController.createEvents(eventDtos).join();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+		assertThat(this.eventRepository.count()).isEqualTo(count);
+	}
+
+	private EventDto eventDto(String name) {
+		return EventDto.builder()
+				.name(name).description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+	}
+}
@@ -0,0 +1,117 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.Resources;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventCalendarTest {
+	private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventCalendar eventCalendar;
+
+	@Autowired
+	EventController eventController;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@After
+	public void resetRequestAttributes() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	@TestDescription("저장한 이벤트는 DB 조회 없이 기간이 겹치는 캘린더 조회에 바로 나타난다")
+	public void calendarFollowsSavedEvents() {
+		Event first = this.eventRepository.save(event("first", BASE, BASE.plusDays(2)));
+		this.eventRepository.save(event("second", BASE.plusDays(3), BASE.plusDays(5)));
+
+		assertThat(names(this.eventCalendar.eventsBetween(BASE.plusDays(1), BASE.plusDays(4)))).containsExactly("first", "second");
+		assertThat(names(this.eventCalendar.enrollmentOpenAt(BASE.minusDays(3)))).containsExactly("first", "second");
+
+		first.setBeginEventDateTime(BASE.plusDays(10));
+		first.setEndEventDateTime(BASE.plusDays(11));
+		this.eventRepository.save(first);
+		assertThat(names(this.eventCalendar.eventsBetween(BASE.plusDays(1), BASE.plusDays(4)))).containsExactly("second");
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/events/calendar")));
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		try {
+			statistics.clear();
+			Resources<?> resources = (Resources<?>) this.eventController.queryCalendar(BASE.plusDays(9), BASE.plusDays(12)).getBody();
+
+			assertThat(resources.getContent()).extracting(r -> ((Resource<EventCalendarEntry>) r).getContent().getId())
+					.containsExactly(first.getId());
+			assertThat(resources.getLink("profile")).isNotNull();
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+	}
+
+	@Test
+	@TestDescription("다시 만드는 중에 읽은 예전 버전의 이벤트는 그 사이에 저장된 이벤트를 덮어쓰지 않는다")
+	public void rebuildKeepsNewerSaves() {
+		Event event = this.eventRepository.save(event("stale", BASE.plusYears(2), BASE.plusYears(2).plusDays(1)));
+		EventCalendar rebuilt = new EventCalendar();
+
+		event.setBeginEventDateTime(BASE.plusYears(3));
+		event.setEndEventDateTime(BASE.plusYears(3).plusDays(1));
+		Event saved = this.eventRepository.save(event);
+		rebuilt.eventSaved(new EventSaved(saved));
+		Event stale = event("stale", BASE.plusYears(2), BASE.plusYears(2).plusDays(1));
+		stale.setId(saved.getId());
+		stale.setVersion(saved.getVersion() - 1);
+		rebuilt.put(stale);
+
+		assertThat(rebuilt.eventsBetween(BASE.plusYears(2), BASE.plusYears(2))).isEmpty();
+		assertThat(rebuilt.eventsBetween(BASE.plusYears(3), BASE.plusYears(3)))
+				.extracting(EventCalendarEntry::getId).containsExactly(saved.getId());
+	}
+
+	private List<String> names(List<EventCalendarEntry> entries) {
+		return entries.stream()
+				.filter(entry -> entry.getBeginEventDateTime().getYear() == BASE.getYear())
+				.map(EventCalendarEntry::getName)
+				.collect(Collectors.toList());
+	}
+
+	private Event event(String name, LocalDateTime begin, LocalDateTime end) {
+		return Event.builder()
+				.name(name)
+				.beginEnrollmentDateTime(begin.minusDays(7))
+				.closeEnrollmentDateTime(begin.minusDays(1))
+				.beginEventDateTime(begin)
+				.endEventDateTime(end)
+				.eventStatus(EventStatus.PUBLISHED)
+				.build();
+	}
+}
@@ -1,24 +1,52 @@
 package me.whiteship.springrestapidemo.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRepository;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
 import me.whiteship.springrestapidemo.common.BaseControllerTest;
+import me.whiteship.springrestapidemo.common.HibernateStatistics;
 import me.whiteship.springrestapidemo.common.TestDescription;
 import org.hamcrest.Matchers;
+import org.hibernate.stat.Statistics;
+import org.junit.Rule;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.restdocs.operation.preprocess.ContentModifyingOperationPreprocessor;
+import org.springframework.restdocs.payload.FieldDescriptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
 
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.replacePattern;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +55,27 @@ public class EventControllerTests extends BaseControllerTest {
 	@Autowired
 	EventRepository eventRepository;
 
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	EventVersionCache eventVersionCache;
+
+	@Autowired
+	EventMapper eventMapper;
+
+	@Autowired
+	EventCalendar eventCalendar;
+
+	@Autowired
+	EventTextIndex eventTextIndex;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Rule
+	public HibernateStatistics statistics = new HibernateStatistics(() -> this.entityManagerFactory);
+
 	@Test
 	@TestDescription("정상적으로 이벤트를 생성하는 테스트")
 	public void createEvent() throws Exception {
@@ -43,7 +92,7 @@ public class EventControllerTests extends BaseControllerTest {
 				.build();
 
 
-		mockMvc.perform(post("/api/events")
+		perform(post("/api/events")
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.accept(MediaTypes.HAL_JSON)
 				.content(objectMapper.writeValueAsString(eventDto)
@@ -129,7 +178,7 @@ public class EventControllerTests extends BaseControllerTest {
 				.build();
 
 
-		mockMvc.perform(post("/api/events")
+		perform(post("/api/events")
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.accept(MediaTypes.HAL_JSON)
 				.content(objectMapper.writeValueAsString(event)
@@ -144,7 +193,7 @@ public class EventControllerTests extends BaseControllerTest {
 	public void createEvent_Bad_Request_empty_input() throws Exception {
 		EventDto eventDto = EventDto.builder().build();
 
-		this.mockMvc.perform(post("/api/events").contentType(MediaType.APPLICATION_JSON_UTF8)
+		this.perform(post("/api/events").contentType(MediaType.APPLICATION_JSON_UTF8)
 				.accept(MediaTypes.HAL_JSON)
 				.content(objectMapper.writeValueAsString(eventDto)
 				))
@@ -167,7 +216,7 @@ public class EventControllerTests extends BaseControllerTest {
 				.location("강남역 D2 스타트업 팩토리")
 				.build();
 
-		this.mockMvc.perform(post("/api/events").contentType(MediaType.APPLICATION_JSON_UTF8)
+		this.perform(post("/api/events").contentType(MediaType.APPLICATION_JSON_UTF8)
 				.accept(MediaTypes.HAL_JSON)
 				.content(objectMapper.writeValueAsString(eventDto)
 				))
@@ -180,6 +229,94 @@ public class EventControllerTests extends BaseControllerTest {
 		;
 	}
 
+	@Test
+	@TestDescription("여러 이벤트를 한 번에 만들고, 잘못된 이벤트만 골라서 알려준다")
+	public void createEvents() throws Exception {
+		EventDto wrongEventDto = generateEventDto(2);
+		wrongEventDto.setBasePrice(10000);
+		List<EventDto> eventDtos = Arrays.asList(generateEventDto(0), generateEventDto(1), wrongEventDto);
+
+		this.perform(post("/api/events/batch")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken())
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content(this.objectMapper.writeValueAsString(eventDtos)))
+				.andDo(print())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(3)))
+				.andExpect(jsonPath("[0].status").value("CREATED"))
+				.andExpect(jsonPath("[0].id").exists())
+				.andExpect(jsonPath("[2].status").value("INVALID"))
+				.andExpect(jsonPath("[2].errors[0].code").exists())
+				.andDo(document("create-events",
+						requestFields(
+								fieldWithPath("[]").description("Events to create, in the same shape as a single new event")
+						).andWithPrefix("[].", eventDtoFields()),
+						responseFields(
+								fieldWithPath("[].index").description("Position of the event in the request"),
+								fieldWithPath("[].status").description("CREATED or INVALID"),
+								fieldWithPath("[].id").optional().description("Id of the created event"),
+								subsectionWithPath("[].errors").optional().description("Why the event was not created, as in an error response")
+						)
+				));
+	}
+
+	@Test
+	@TestDescription("한 번에 만들 수 있는 수보다 많은 이벤트를 보내면 413 Payload Too Large로 응답한다")
+	public void createEvents_Payload_Too_Large() throws Exception {
+		List<EventDto> eventDtos = Collections.nCopies(1001, generateEventDto(0));
+
+		this.perform(post("/api/events/batch")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken())
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content(this.objectMapper.writeValueAsString(eventDtos)))
+				.andExpect(status().isPayloadTooLarge())
+				.andExpect(jsonPath("content[0].code").value("tooManyEvents"))
+				.andDo(document("create-events-too-large",
+						// the 1001 events would only bury the response
+						preprocessRequest(replacePattern(Pattern.compile("(?s)^\\[.*\\]$"), "[ ... 1001 events ... ]")),
+						responseFields(
+								subsectionWithPath("content").description("Errors of the rejected request"),
+								subsectionWithPath("_links").description("Links to other resources")
+						)
+				));
+	}
+
+	@Test
+	@TestDescription("NDJSON으로 올린 이벤트를 저장하고, 잘못된 줄과 진행 상황을 NDJSON으로 알려준다")
+	public void importEvents() throws Exception {
+		EventDto offlineEventDto = generateEventDto(10);
+		offlineEventDto.setLocation("D2 Startup Factory");
+		EventDto onlineEventDto = generateEventDto(11);
+		onlineEventDto.setLocation(null);
+		String body = this.objectMapper.writeValueAsString(offlineEventDto) + "\n"
+				+ "{\"name\": \"broken\"\n"
+				+ this.objectMapper.writeValueAsString(onlineEventDto) + "\n";
+
+		String content = this.perform(post("/api/events/import")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken())
+				.contentType(EventExporter.APPLICATION_NDJSON_VALUE)
+				.content(body))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(EventExporter.APPLICATION_NDJSON_VALUE))
+				.andDo(document("import-events",
+						requestHeaders(
+								headerWithName(HttpHeaders.AUTHORIZATION).description("bearer access token"),
+								headerWithName(HttpHeaders.CONTENT_TYPE).description("application/x-ndjson, or text/csv with a header row")
+						)
+				))
+				.andReturn().getResponse().getContentAsString();
+		String[] lines = content.split("\n");
+		JsonNode invalid = this.objectMapper.readTree(lines[0]);
+		assertThat(invalid.get("index").asInt()).isEqualTo(1);
+		assertThat(invalid.get("status").asText()).isEqualTo("INVALID");
+		assertThat(invalid.get("errors").get(0).get("code").asText()).isEqualTo("malformedRow");
+		JsonNode summary = this.objectMapper.readTree(lines[lines.length - 1]);
+		assertThat(summary.get("processed").asInt()).isEqualTo(3);
+		assertThat(summary.get("created").asInt()).isEqualTo(2);
+		assertThat(summary.get("invalid").asInt()).isEqualTo(1);
+		assertThat(summary.get("done").asBoolean()).isTrue();
+	}
+
 	@Test
 	@TestDescription("30개의 이벤트를 10개씩 두번째 페이지 조회하기")
 	public void queryEvents() throws Exception {
@@ -187,7 +324,7 @@ public class EventControllerTests extends BaseControllerTest {
 		IntStream.range(0, 30).forEach(this::generateEvent);
 
 		// When & Then
-		this.mockMvc.perform(get("/api/events")
+		this.perform(get("/api/events")
 				.param("page", "0")
 				.param("size", "10")
 				.param("sort", "name,DESC"))
@@ -201,6 +338,259 @@ public class EventControllerTests extends BaseControllerTest {
 		;
 	}
 
+	@Test
+	@TestDescription("매니저가 여러 명이어도 이벤트 목록 한 페이지는 정해진 수의 쿼리로 조회한다")
+	public void queryEventsStatementCount() throws Exception {
+		// Given
+		IntStream.range(0, 100).forEach(i -> {
+			Account manager = this.accountRepository.save(Account.builder()
+					.email("statement-count-manager" + i + "@email.com")
+					.roles(Collections.singleton(AccountRole.USER))
+					.build());
+			this.eventRepository.save(Event.builder().name("managed " + i).manager(manager).build());
+		});
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		Statistics statistics = this.statistics.reset();
+		this.perform(get("/api/events")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.param("page", "0")
+				.param("size", "100")
+				.param("sort", "id,DESC"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList", Matchers.hasSize(100)))
+				.andExpect(jsonPath("_embedded.eventList[0].manager.id").exists());
+		// events with managers, count, roles of all managers in one batch
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	@TestDescription("커서로 이벤트 목록을 앞뒤로 넘긴다")
+	public void queryEventsByCursor() throws Exception {
+		// Given
+		IntStream.range(0, 5).forEach(i -> this.eventRepository.save(Event.builder().name("cursor " + i).basePrice(7777).build()));
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		// the links keep the query string, so it is sent as is rather than as separate parameters
+		String firstPage = this.perform(get("/api/events?after=&size=2&sort=name,ASC&basePriceFrom=7777&basePriceTo=7777")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].name", Matchers.contains("cursor 0", "cursor 1")))
+				.andExpect(jsonPath("_links.prev").doesNotExist())
+				.andReturn().getResponse().getContentAsString();
+
+		String next = this.objectMapper.readTree(firstPage).at("/_links/next/href").asText();
+		this.perform(get(URI.create(next)).header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].name", Matchers.contains("cursor 2", "cursor 3")))
+				.andExpect(jsonPath("_links.prev").exists())
+				.andExpect(jsonPath("_links.next").exists())
+				.andDo(document("query-events-after",
+						requestParameters(
+								parameterWithName("after").description("Cursor of the last event of the previous page; empty for the first page"),
+								parameterWithName("size").description("Page size"),
+								parameterWithName("sort").description("Sort property and direction; ties are broken by id"),
+								parameterWithName("basePriceFrom").description("Filter, as in the event list"),
+								parameterWithName("basePriceTo").description("Filter, as in the event list")
+						),
+						links(
+								linkWithRel("self").description("Link to self"),
+								linkWithRel("first").description("Link to the first page"),
+								linkWithRel("next").description("Link to the next page, if there is one"),
+								linkWithRel("prev").description("Link to the previous page, if there is one"),
+								linkWithRel("last").description("Link to the last page"),
+								linkWithRel("profile").description("Link to profile")
+						)
+				));
+
+		this.perform(get("/api/events?before=&size=2&sort=name,ASC&basePriceFrom=7777&basePriceTo=7777")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].name", Matchers.contains("cursor 3", "cursor 4")))
+				.andExpect(jsonPath("_links.prev").exists())
+				.andExpect(jsonPath("_links.next").doesNotExist());
+
+		this.perform(get("/api/events")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.param("after", "not a cursor"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("content[0].code").value("wrongCursor"));
+	}
+
+	@Test
+	@TestDescription("fields로 고른 컬럼만 조회하고 엔티티는 만들지 않는다")
+	public void queryEventFields() throws Exception {
+		// Given
+		IntStream.range(0, 5).forEach(i -> this.eventRepository.save(Event.builder()
+				.name("projected " + i)
+				.description("long description " + i)
+				.eventStatus(EventStatus.PUBLISHED)
+				.build()));
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		Statistics statistics = this.statistics.reset();
+		MvcResult result = this.perform(get("/api/events")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.param("fields", "name, eventStatus")
+				.param("page", "0")
+				.param("size", "3")
+				.param("sort", "id,DESC"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList", Matchers.hasSize(3)))
+				.andExpect(jsonPath("_embedded.eventList[0].name").value("projected 4"))
+				.andExpect(jsonPath("_embedded.eventList[0].eventStatus").value("PUBLISHED"))
+				.andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+				.andExpect(jsonPath("page").exists())
+				.andDo(document("query-events-fields",
+						requestParameters(
+								parameterWithName("fields").description("Comma separated names of the fields to return; id is always returned"),
+								parameterWithName("page").description("Page number, starting at 0"),
+								parameterWithName("size").description("Page size"),
+								parameterWithName("sort").description("Sort property and direction")
+						)
+				))
+				.andReturn();
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+		JsonNode first = this.objectMapper.readTree(result.getResponse().getContentAsString()).get("_embedded").get("eventList").get(0);
+		assertThat(first.fieldNames()).containsExactlyInAnyOrder("id", "name", "eventStatus", "_links");
+	}
+
+	@Test
+	@TestDescription("없는 필드를 고르면 400 Bad Request로 응답한다")
+	public void queryEventFieldsWithWrongField() throws Exception {
+		this.perform(get("/api/events")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken())
+				.param("fields", "name,manager"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("content[0].code").value("wrongField"));
+	}
+
+	@Test
+	@TestDescription("기간이 겹치는 이벤트와 등록을 받고 있는 이벤트를 캘린더에서 조회한다")
+	public void queryCalendar() throws Exception {
+		// Given
+		Event first = this.eventRepository.save(calendarEvent("캘린더 이벤트 1", LocalDateTime.of(2040, 3, 2, 10, 0)));
+		Event second = this.eventRepository.save(calendarEvent("캘린더 이벤트 2", LocalDateTime.of(2040, 3, 9, 10, 0)));
+		this.eventRepository.save(calendarEvent("캘린더 이벤트 3", LocalDateTime.of(2040, 4, 6, 10, 0)));
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		this.perform(get("/api/events/calendar?from=2040-03-01T00:00:00&to=2040-03-31T23:59:59")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].id").value(Matchers.contains(first.getId(), second.getId())))
+				.andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+				.andExpect(jsonPath("_links.profile").exists())
+				.andDo(document("query-events-calendar",
+						requestParameters(
+								parameterWithName("from").description("Start of the period, in ISO 8601"),
+								parameterWithName("to").description("End of the period, in ISO 8601")
+						),
+						links(
+								linkWithRel("self").description("Link to self"),
+								linkWithRel("profile").description("Link to profile")
+						)
+				));
+
+		this.perform(get("/api/events/calendar?enrollmentOpenAt=2040-03-05T12:00:00")
+				.header(HttpHeaders.AUTHORIZATION, bearerToken))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].id").value(Matchers.contains(second.getId())))
+				.andDo(document("query-events-enrollment-calendar",
+						requestParameters(
+								parameterWithName("enrollmentOpenAt").description("Time the enrollment is open at, in ISO 8601")
+						)
+				));
+	}
+
+	@Test
+	@TestDescription("캘린더를 다 읽기 전에는 503 Service Unavailable로 응답한다")
+	public void queryCalendarNotReady() throws Exception {
+		ReflectionTestUtils.setField(this.eventCalendar, "ready", false);
+		try {
+			this.perform(get("/api/events/calendar?enrollmentOpenAt=2040-03-05T12:00:00")
+					.header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+		} finally {
+			this.eventCalendar.loaded();
+		}
+	}
+
+	@Test
+	@TestDescription("이름, 장소, 설명에서 단어를 찾아 점수 순으로 이벤트를 조회한다")
+	public void searchEvents() throws Exception {
+		// Given
+		Event inDescription = this.eventRepository.save(Event.builder()
+				.name("Spring 밋업").description("Restdocscamp 후기").location("판교")
+				.eventStatus(EventStatus.PUBLISHED).build());
+		Event inName = this.eventRepository.save(Event.builder()
+				.name("Restdocscamp 2040").description("REST API Development").location("강남역 D2 스타트업 팩토리")
+				.eventStatus(EventStatus.PUBLISHED).build());
+
+		// When & Then
+		this.perform(get("/api/events/search?q=restdocs&size=10")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.eventList[*].id").value(Matchers.contains(inName.getId(), inDescription.getId())))
+				.andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+				.andExpect(jsonPath("_links.profile").exists())
+				.andDo(document("search-events",
+						requestParameters(
+								parameterWithName("q").description("Words to search for; each matches the words it starts"),
+								parameterWithName("size").description("Maximum number of events, 20 by default and at most 100")
+						),
+						links(
+								linkWithRel("self").description("Link to self"),
+								linkWithRel("profile").description("Link to profile")
+						)
+				));
+	}
+
+	@Test
+	@TestDescription("검색 인덱스를 다 읽기 전에는 503 Service Unavailable로 응답한다")
+	public void searchEventsNotReady() throws Exception {
+		ReflectionTestUtils.setField(this.eventTextIndex, "ready", false);
+		try {
+			this.perform(get("/api/events/search?q=restdocs")
+					.header(HttpHeaders.AUTHORIZATION, getBearerToken()))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+		} finally {
+			this.eventTextIndex.loaded();
+		}
+	}
+
+	@Test
+	@TestDescription("모든 이벤트를 한 줄에 하나씩 NDJSON으로 내보낸다")
+	public void exportEvents() throws Exception {
+		// Given
+		Event event = this.generateEvent(400);
+
+		// When & Then
+		String content = this.perform(get("/api/events/export")
+				.header(HttpHeaders.AUTHORIZATION, getBearerToken())
+				.accept(EventExporter.APPLICATION_NDJSON_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(EventExporter.APPLICATION_NDJSON_VALUE))
+				.andDo(document("export-events",
+						// every event in the database is exported; two lines show the format
+						preprocessResponse(new ContentModifyingOperationPreprocessor((body, contentType) -> firstLines(body, 2)))
+				))
+				.andReturn().getResponse().getContentAsString();
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : content.split("\n")) {
+			lines.add(this.objectMapper.readTree(line));
+		}
+		assertThat(lines).extracting(line -> line.get("id").asInt()).isSorted().contains(event.getId());
+		assertThat(lines).filteredOn(line -> line.get("id").asInt() == event.getId())
+				.extracting(line -> line.get("name").asText(), line -> line.get("location").asText())
+				.containsExactly(tuple("event 400", "강남역 D2 스타트업 팩토리"));
+	}
+
 	@Test
 	@TestDescription("기존의 이벤트를 하나 조회하기")
 	public void getEvent() throws Exception {
@@ -208,7 +598,7 @@ public class EventControllerTests extends BaseControllerTest {
 		Event event = this.generateEvent(100);
 
 		// When & Then
-		this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+		this.perform(get("/api/events/{id}", event.getId()))
 				.andDo(print())
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("name").exists())
@@ -219,11 +609,54 @@ public class EventControllerTests extends BaseControllerTest {
 		;
 	}
 
+	@Test
+	@TestDescription("If-None-Match가 현재 버전과 같으면 캐시에서든 DB에서 읽은 뒤든 304 Not Modified로 응답한다")
+	public void getEventIfNoneMatch() throws Exception {
+		// Given
+		Event event = this.generateEvent(300);
+		String bearerToken = getBearerToken();
+		this.eventVersionCache.evict(event.getId());
+
+		// When & Then
+		Statistics statistics = this.statistics.reset();
+		this.perform(get("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(content().string(""))
+				.andDo(document("get-an-event-not-modified",
+						requestHeaders(
+								headerWithName(HttpHeaders.AUTHORIZATION).description("bearer access token"),
+								headerWithName(HttpHeaders.IF_NONE_MATCH).description("ETag of the version the client already has")
+						),
+						responseHeaders(
+								headerWithName(HttpHeaders.ETAG).description("ETag of the current version")
+						)
+				));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(this.eventVersionCache.get(event.getId())).isEqualTo(0);
+
+		statistics = this.statistics.reset();
+		this.perform(get("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+				.andExpect(status().isNotModified());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+
+		this.perform(get("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+				.andExpect(jsonPath("name").value("event 300"));
+	}
+
 	@Test
 	@TestDescription("없는 이벤트를 조회했을 때 404 응답 받기")
 	public void getEvent404() throws Exception {
 		// When & Then
-		this.mockMvc.perform(get("/api/events/{id}", 999))
+		this.perform(get("/api/events/{id}", 999))
 				.andDo(print())
 				.andExpect(status().isNotFound())
 		;
@@ -239,7 +672,7 @@ public class EventControllerTests extends BaseControllerTest {
 		eventDto.setName(eventName);
 
 		// When & Then
-		this.mockMvc.perform(put("/api/events/{id}", event.getId())
+		this.perform(put("/api/events/{id}", event.getId())
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.content(this.objectMapper.writeValueAsString(eventDto))
 		)
@@ -251,6 +684,129 @@ public class EventControllerTests extends BaseControllerTest {
 				.andDo(document("update-event"));
 	}
 
+	@Test
+	@TestDescription("PUT의 If-Match가 현재 버전과 다르면 412 Precondition Failed로 응답하고 저장하지 않는다")
+	public void updateEventIfMatch() throws Exception {
+		// Given
+		Event event = this.generateEvent(300);
+		EventDto eventDto = this.eventMapper.toDto(event);
+		eventDto.setName("updated");
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		this.perform(put("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content(this.objectMapper.writeValueAsString(eventDto)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andDo(document("update-event-if-match",
+						requestHeaders(
+								headerWithName(HttpHeaders.AUTHORIZATION).description("bearer access token"),
+								headerWithName(HttpHeaders.IF_MATCH).description("ETag of the version the update is based on"),
+								headerWithName(HttpHeaders.CONTENT_TYPE).description("content type")
+						),
+						responseHeaders(
+								headerWithName(HttpHeaders.ETAG).description("ETag of the updated version"),
+								headerWithName(HttpHeaders.CONTENT_TYPE).description("content type")
+						)
+				));
+		assertThat(this.eventVersionCache.get(event.getId())).isEqualTo(1);
+
+		eventDto.setName("stale");
+		this.perform(put("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content(this.objectMapper.writeValueAsString(eventDto)))
+				.andExpect(status().isPreconditionFailed());
+		assertThat(this.eventVersionCache.get(event.getId())).isNull();
+		this.perform(put("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_MATCH, "W/\"1\"")
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content(this.objectMapper.writeValueAsString(eventDto)))
+				.andExpect(status().isPreconditionFailed());
+
+		Event saved = this.eventRepository.findById(event.getId()).get();
+		assertThat(saved.getName()).isEqualTo("updated");
+		assertThat(saved.getVersion()).isEqualTo(1);
+	}
+
+	@Test
+	@TestDescription("PATCH는 보낸 필드만 병합해 검증하고 UPDATE 한 번으로 저장한다")
+	public void patchEvent() throws Exception {
+		// Given
+		Event event = this.eventRepository.save(Event.builder()
+				.name("patched").description("partial update")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 11, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 11, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+				.basePrice(100).maxPrice(200).limitOfEnrollment(10)
+				.location("D2").offline(true)
+				.eventStatus(EventStatus.DRAFT)
+				.build());
+		String bearerToken = getBearerToken();
+
+		// When & Then
+		Statistics statistics = this.statistics.reset();
+		this.perform(patch("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content("{\"limitOfEnrollment\": 50}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("limitOfEnrollment").value(50))
+				.andDo(document("patch-event",
+						requestHeaders(
+								headerWithName(HttpHeaders.AUTHORIZATION).description("bearer access token"),
+								headerWithName(HttpHeaders.CONTENT_TYPE).description("content type")
+						),
+						responseHeaders(
+								headerWithName(HttpHeaders.ETAG).description("ETag of the updated version"),
+								headerWithName(HttpHeaders.CONTENT_TYPE).description("content type")
+						)
+				));
+		// the select by id and one update
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+
+		this.perform(patch("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_MATCH, "\"1\"")
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content("{\"basePrice\": 0, \"maxPrice\": 0, \"location\": null}"))
+				.andExpect(status().isOk());
+		Event patched = this.eventRepository.findById(event.getId()).get();
+		assertThat(patched.getName()).isEqualTo("patched");
+		assertThat(patched.getLimitOfEnrollment()).isEqualTo(50);
+		assertThat(patched.isFree()).isTrue();
+		assertThat(patched.isOffline()).isFalse();
+		assertThat(patched.getVersion()).isEqualTo(2);
+
+		this.perform(patch("/api/events/{id}", event.getId())
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.header(HttpHeaders.IF_MATCH, "\"1\"")
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content("{\"limitOfEnrollment\": 60}"))
+				.andExpect(status().isPreconditionFailed());
+		for (String wrongPatch : new String[]{"{\"basePrice\": 300, \"maxPrice\": 200}", "{\"name\": \"\"}", "{\"manager\": 1}"}) {
+			this.perform(patch("/api/events/{id}", event.getId())
+					.header(HttpHeaders.AUTHORIZATION, bearerToken)
+					.contentType(MediaType.APPLICATION_JSON_UTF8)
+					.content(wrongPatch))
+					.andExpect(status().isBadRequest());
+		}
+		this.perform(patch("/api/events/{id}", -1)
+				.header(HttpHeaders.AUTHORIZATION, bearerToken)
+				.contentType(MediaType.APPLICATION_JSON_UTF8)
+				.content("{\"limitOfEnrollment\": 60}"))
+				.andExpect(status().isNotFound());
+		assertThat(this.eventRepository.findById(event.getId()).get().getVersion()).isEqualTo(2);
+	}
+
 	@Test
 	@TestDescription("입력값이 비어있는 경우에 이벤트 수정 실패")
 	public void updateEvent_400_empty_parameter() throws Exception {
@@ -259,7 +815,7 @@ public class EventControllerTests extends BaseControllerTest {
 		EventDto eventDto = new EventDto();
 
 		// When & Then
-		this.mockMvc.perform(put("/api/events/{id}", event.getId())
+		this.perform(put("/api/events/{id}", event.getId())
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.content(this.objectMapper.writeValueAsString(eventDto))
 		)
@@ -277,7 +833,7 @@ public class EventControllerTests extends BaseControllerTest {
 		eventDto.setMaxPrice(100);
 
 		// When & Then
-		this.mockMvc.perform(put("/api/events/{id}", event.getId())
+		this.perform(put("/api/events/{id}", event.getId())
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.content(this.objectMapper.writeValueAsString(eventDto))
 		)
@@ -293,7 +849,7 @@ public class EventControllerTests extends BaseControllerTest {
 		EventDto eventDto = this.modelMapper.map(event, EventDto.class);
 
 		// When & Then
-		this.mockMvc.perform(put("/api/events/{id}", 100)
+		this.perform(put("/api/events/{id}", 100)
 				.contentType(MediaType.APPLICATION_JSON_UTF8)
 				.accept(MediaTypes.HAL_JSON)
 				.content(objectMapper.writeValueAsString(eventDto)
@@ -304,6 +860,62 @@ public class EventControllerTests extends BaseControllerTest {
 	}
 
 
+	private static byte[] firstLines(byte[] content, int count) {
+		int end = 0;
+		for (int i = 0; i < count && end < content.length; i++) {
+			while (end < content.length && content[end++] != '\n') {
+			}
+		}
+		if (end == content.length) {
+			return content;
+		}
+		byte[] more = "...\n".getBytes(StandardCharsets.UTF_8);
+		byte[] lines = Arrays.copyOf(content, end + more.length);
+		System.arraycopy(more, 0, lines, end, more.length);
+		return lines;
+	}
+
+	private EventDto generateEventDto(int i) {
+		return EventDto.builder()
+				.name("batch event " + i).description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+	}
+
+	private List<FieldDescriptor> eventDtoFields() {
+		return Arrays.asList(
+				fieldWithPath("name").description("Name of new event"),
+				fieldWithPath("description").description("description of new event"),
+				fieldWithPath("beginEnrollmentDateTime").description("beginEnrollmentDateTime of new event"),
+				fieldWithPath("closeEnrollmentDateTime").description("closeEnrollmentDateTime of new event"),
+				fieldWithPath("beginEventDateTime").description("beginEventDateTime of new event"),
+				fieldWithPath("endEventDateTime").description("endEventDateTime of new event"),
+				fieldWithPath("location").description("location of new event"),
+				fieldWithPath("basePrice").description("basePrice of new event"),
+				fieldWithPath("maxPrice").description("maxPrice of new event"),
+				fieldWithPath("limitOfEnrollment").description("limitOfEnrollment of new event")
+		);
+	}
+
+	private Event calendarEvent(String name, LocalDateTime begin) {
+		return Event.builder()
+				.name(name)
+				.beginEnrollmentDateTime(begin.minusDays(7))
+				.closeEnrollmentDateTime(begin.minusDays(1))
+				.beginEventDateTime(begin)
+				.endEventDateTime(begin.plusHours(2))
+				.location("강남역 D2 스타트업 팩토리")
+				.eventStatus(EventStatus.PUBLISHED)
+				.build();
+	}
+
 	private Event generateEvent(int i) {
 		Event event = Event.builder()
 				.name("event " + i)
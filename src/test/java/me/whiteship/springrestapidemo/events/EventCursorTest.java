@@ -0,0 +1,56 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventCursorTest {
+
+	@Test
+	public void encodeAndDecode() {
+		Event event = Event.builder()
+				.id(42)
+				.name("Spring\nREST")
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.build();
+
+		EventCursor byName = EventCursor.decode(EventCursor.of(event, "name").encode());
+		EventCursor byDate = EventCursor.decode(EventCursor.of(event, "beginEventDateTime").encode());
+
+		assertThat(byName).isEqualTo(EventCursor.of(event, "name"));
+		assertThat(byName.getValue()).isEqualTo("Spring\nREST");
+		assertThat(byDate.getValue()).isEqualTo(LocalDateTime.of(2018, 12, 25, 14, 21));
+		assertThat(byDate.getId()).isEqualTo(42);
+	}
+
+	@Test
+	public void encodeAndDecodeNull() {
+		Event event = Event.builder().id(7).name("null").build();
+
+		EventCursor byDate = EventCursor.decode(EventCursor.of(event, "beginEnrollmentDateTime").encode());
+		EventCursor byName = EventCursor.decode(EventCursor.of(Event.builder().id(8).build(), "name").encode());
+
+		assertThat(byDate.getValue()).isNull();
+		assertThat(byDate.getId()).isEqualTo(7);
+		assertThat(byName.getValue()).isNull();
+		assertThat(EventCursor.decode(EventCursor.of(event, "name").encode()).getValue()).isEqualTo("null");
+	}
+
+	@Test
+	public void decodeMalformed() {
+		assertThatThrownBy(() -> EventCursor.decode("not a cursor!"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> EventCursor.decode(EventCursor.of(Event.builder().id(1).build(), "id").encode().substring(2)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void unsortableProperty() {
+		assertThat(EventCursor.isSortable("description")).isFalse();
+		assertThatThrownBy(() -> EventCursor.of(new Event(), "description"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,95 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRepository;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventExporterTest {
+	@Autowired
+	EventExporter eventExporter;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Test
+	@TestDescription("이벤트를 한 줄에 하나씩 JSON으로 내보내고 영속성 컨텍스트에 남기지 않는다")
+	public void export() throws IOException {
+		Account manager = this.accountRepository.save(Account.builder()
+				.email("exporter@email.com")
+				.roles(Collections.singleton(AccountRole.USER))
+				.build());
+		IntStream.range(0, 30).forEach(i -> this.eventRepository.save(Event.builder()
+				.name("export " + i)
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.basePrice(i)
+				.eventStatus(EventStatus.DRAFT)
+				.manager(manager)
+				.build()));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		int managedEntities = this.transactionTemplate.execute(status -> {
+			try {
+				this.eventExporter.export(outputStream);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return this.entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+		});
+		assertThat(managedEntities).isEqualTo(0);
+
+		List<JsonNode> exported = new ArrayList<>();
+		for (String line : outputStream.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+			JsonNode node = this.objectMapper.readTree(line);
+			if (node.get("name").asText().startsWith("export ")) {
+				exported.add(node);
+			}
+		}
+		assertThat(exported).hasSize(30);
+		JsonNode last = exported.get(29);
+		assertThat(last.get("name").asText()).isEqualTo("export 29");
+		assertThat(last.get("basePrice").asInt()).isEqualTo(29);
+		assertThat(last.get("beginEventDateTime").asText()).isEqualTo("2018-12-25T14:21:00");
+		assertThat(last.get("eventStatus").asText()).isEqualTo("DRAFT");
+		assertThat(last.get("managerId").asInt()).isEqualTo(manager.getId());
+	}
+}
@@ -0,0 +1,164 @@
+package me.whiteship.springrestapidemo.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "app.events.import.chunk-size=2")
+@ActiveProfiles("test")
+public class EventImporterTest {
+	@Autowired
+	EventImporter eventImporter;
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@TestDescription("NDJSON으로 올린 이벤트 중 잘못된 줄만 건너뛰고 나머지는 나눠서 저장한다")
+	public void importNdjson() throws IOException {
+		String body = ndjsonRow("ndjson 1", 100, 200) + "\n"
+				+ "{\"name\": \"broken\"\n"
+				+ ndjsonRow("ndjson 2", 10000, 200) + "\n"
+				+ "\n"
+				+ ndjsonRow("ndjson 3", 0, 0) + "\n"
+				+ "{\"name\":\"unknown\",\"unknownProperty\":1}\n"
+				+ ndjsonRow("ndjson 4", 100, 200) + "\n";
+
+		List<JsonNode> output = importEvents(body, MediaType.parseMediaType(EventExporter.APPLICATION_NDJSON_VALUE));
+
+		assertThat(output).filteredOn(node -> node.has("status"))
+				.extracting(node -> node.get("index").asInt())
+				.containsExactly(1, 2, 4);
+		assertThat(output.get(0).get("errors").get(0).get("code").asText()).isEqualTo("malformedRow");
+		assertThat(output).filteredOn(node -> node.has("processed"))
+				.extracting(node -> node.get("created").asInt())
+				.containsExactly(2, 3);
+		JsonNode summary = output.get(output.size() - 1);
+		assertThat(summary.get("processed").asInt()).isEqualTo(6);
+		assertThat(summary.get("invalid").asInt()).isEqualTo(3);
+		assertThat(summary.get("done").asBoolean()).isTrue();
+
+		assertThat(this.eventRepository.findAll()).filteredOn(e -> e.getName().startsWith("ndjson "))
+				.extracting(Event::getName)
+				.containsExactlyInAnyOrder("ndjson 1", "ndjson 3", "ndjson 4");
+	}
+
+	@Test
+	@TestDescription("null 줄은 잘못된 줄로 건너뛰고, 저장에 실패한 묶음은 한 줄씩 다시 저장해 실패한 줄만 알린다")
+	public void importNullAndUnsavableRows() throws IOException {
+		String body = ndjsonRow("retried 1", 100, 200) + "\n"
+				+ "null\n"
+				+ ndjsonRow(String.join("", Collections.nCopies(300, "x")), 100, 200) + "\n"
+				+ ndjsonRow("retried 2", 100, 200) + "\n";
+
+		List<JsonNode> output = importEvents(body, MediaType.parseMediaType(EventExporter.APPLICATION_NDJSON_VALUE));
+
+		assertThat(output).filteredOn(node -> node.has("status"))
+				.extracting(node -> node.get("index").asInt(), node -> node.get("errors").get(0).get("code").asText())
+				.containsExactly(tuple(1, "nullEvent"), tuple(2, "saveFailed"));
+		JsonNode summary = output.get(output.size() - 1);
+		assertThat(summary.get("processed").asInt()).isEqualTo(4);
+		assertThat(summary.get("created").asInt()).isEqualTo(2);
+		assertThat(summary.get("invalid").asInt()).isEqualTo(2);
+
+		assertThat(this.eventRepository.findAll()).filteredOn(e -> e.getName().startsWith("retried "))
+				.extracting(Event::getName)
+				.containsExactlyInAnyOrder("retried 1", "retried 2");
+	}
+
+	@Test
+	@TestDescription("헤더가 있는 CSV로 이벤트를 가져온다")
+	public void importCsv() throws IOException {
+		String body = "name,description,beginEnrollmentDateTime,closeEnrollmentDateTime,beginEventDateTime,endEventDateTime,location,basePrice,maxPrice,limitOfEnrollment\n"
+				+ "csv 1,REST API Development,2018-11-23T14:21:00,2018-11-24T14:21:00,2018-11-25T14:21:00,2018-11-26T14:21:00,\"강남역, D2\",100,200,100\n"
+				+ "csv 2,REST API Development,2018-11-23T14:21:00,2018-11-24T14:21:00,2018-11-25T14:21:00,2018-11-26T14:21:00,,0,0,100\n"
+				+ "csv 3,REST API Development,not a date,2018-11-24T14:21:00,2018-11-25T14:21:00,2018-11-26T14:21:00,,0,0,100\n";
+
+		List<JsonNode> output = importEvents(body, EventImporter.TEXT_CSV);
+
+		JsonNode summary = output.get(output.size() - 1);
+		assertThat(summary.get("created").asInt()).isEqualTo(2);
+		assertThat(summary.get("invalid").asInt()).isEqualTo(1);
+		Event imported = this.eventRepository.findAll().stream()
+				.filter(e -> e.getName().equals("csv 1"))
+				.findFirst().get();
+		assertThat(imported.getLocation()).isEqualTo("강남역, D2");
+		assertThat(imported.isOffline()).isTrue();
+		assertThat(imported.isFree()).isFalse();
+	}
+
+	@Test
+	@TestDescription("요청 동안 열린 영속성 컨텍스트에 저장한 이벤트를 쌓아두지 않는다")
+	public void clearPersistenceContextAfterEachChunk() throws IOException {
+		String body = ndjsonRow("cleared 1", 100, 200) + "\n"
+				+ ndjsonRow("cleared 2", 100, 200) + "\n"
+				+ ndjsonRow("cleared 3", 100, 200) + "\n";
+		EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(this.entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			JsonNode summary = importEvents(body, MediaType.parseMediaType(EventExporter.APPLICATION_NDJSON_VALUE)).get(1);
+
+			assertThat(summary.get("created").asInt()).isEqualTo(3);
+			assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(this.entityManagerFactory);
+			entityManager.close();
+		}
+	}
+
+	private List<JsonNode> importEvents(String body, MediaType contentType) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		this.eventImporter.importEvents(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType, outputStream);
+
+		List<JsonNode> output = new ArrayList<>();
+		for (String line : outputStream.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+			output.add(this.objectMapper.readTree(line));
+		}
+		return output;
+	}
+
+	private String ndjsonRow(String name, int basePrice, int maxPrice) throws IOException {
+		EventDto eventDto = EventDto.builder()
+				.name(name).description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 11, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 11, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+				.basePrice(basePrice)
+				.maxPrice(maxPrice)
+				.limitOfEnrollment(100)
+				.build();
+		return this.objectMapper.writeValueAsString(eventDto);
+	}
+}
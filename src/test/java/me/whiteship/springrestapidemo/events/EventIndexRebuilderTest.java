@@ -0,0 +1,112 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventIndexRebuilderTest {
+	private static final LocalDateTime BASE = LocalDateTime.of(2031, 1, 1, 0, 0);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Test
+	@TestDescription("시작 시점에 저장되어 있던 이벤트로 캘린더, 검색 인덱스, 남은 자리를 다시 만들고 그 전에는 준비되지 않았다고 답한다")
+	public void rebuildFromRepository() {
+		Event event = this.eventRepository.save(event("Rebuiltconf"));
+		EventIndexRebuilder rebuilder = rebuilder(this.eventRepository, this.enrollmentRepository, this.entityManager);
+
+		assertThat(rebuilder.eventCalendar.isReady()).isFalse();
+		assertThat(rebuilder.eventTextIndex.isReady()).isFalse();
+		assertThat(rebuilder.enrollmentService.enroll(event.getId(), 1)).isEqualTo(SeatReservation.NOT_READY);
+
+		this.transactionTemplate.execute(status -> {
+			rebuilder.rebuild();
+			return null;
+		});
+
+		assertThat(rebuilder.eventCalendar.isReady()).isTrue();
+		assertThat(rebuilder.eventCalendar.eventsBetween(BASE, BASE))
+				.extracting(EventCalendarEntry::getId).containsExactly(event.getId());
+		assertThat(rebuilder.eventTextIndex.isReady()).isTrue();
+		assertThat(rebuilder.eventTextIndex.search("rebuiltconf", 20)).containsExactly(event.getId());
+		assertThat(rebuilder.enrollmentService.remainingSeats(event.getId())).isEqualTo(10);
+	}
+
+	@Test
+	@TestDescription("이벤트 테이블은 세 인덱스를 위해 한 번만 읽는다")
+	public void streamEventsOnce() {
+		Event event = event("Oncecamp");
+		event.setId(1);
+		EventRepository eventRepository = mock(EventRepository.class);
+		EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+		given(eventRepository.streamAllByOrderById()).willReturn(Stream.of(event));
+		given(enrollmentRepository.streamEventAndAccountIds()).willReturn(Stream.empty());
+		EventIndexRebuilder rebuilder = rebuilder(eventRepository, enrollmentRepository, mock(EntityManager.class));
+
+		rebuilder.rebuild();
+
+		verify(eventRepository, times(1)).streamAllByOrderById();
+		verifyNoMoreInteractions(eventRepository);
+		assertThat(rebuilder.eventCalendar.eventsBetween(BASE, BASE)).extracting(EventCalendarEntry::getId).containsExactly(1);
+		assertThat(rebuilder.eventTextIndex.search("oncecamp", 20)).containsExactly(1);
+		assertThat(rebuilder.enrollmentService.remainingSeats(1)).isEqualTo(10);
+	}
+
+	private EventIndexRebuilder rebuilder(EventRepository eventRepository, EnrollmentRepository enrollmentRepository,
+	                                      EntityManager entityManager) {
+		EnrollmentService enrollmentService = new EnrollmentService();
+		enrollmentService.eventRepository = eventRepository;
+		enrollmentService.enrollmentRepository = enrollmentRepository;
+		enrollmentService.entityManager = entityManager;
+
+		EventIndexRebuilder rebuilder = new EventIndexRebuilder();
+		rebuilder.eventRepository = eventRepository;
+		rebuilder.eventCalendar = new EventCalendar();
+		rebuilder.eventTextIndex = new EventTextIndex();
+		rebuilder.enrollmentService = enrollmentService;
+		rebuilder.entityManager = entityManager;
+		return rebuilder;
+	}
+
+	private Event event(String name) {
+		return Event.builder()
+				.name(name)
+				.beginEnrollmentDateTime(BASE.minusDays(7))
+				.closeEnrollmentDateTime(BASE.minusDays(1))
+				.beginEventDateTime(BASE)
+				.endEventDateTime(BASE.plusDays(1))
+				.limitOfEnrollment(10)
+				.eventStatus(EventStatus.PUBLISHED)
+				.build();
+	}
+}
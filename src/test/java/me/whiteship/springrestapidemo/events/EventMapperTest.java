@@ -0,0 +1,82 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.accounts.Account;
+import org.junit.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventMapperTest {
+	ModelMapper modelMapper = new ModelMapper();
+
+	EventMapper eventMapper = new EventMapper();
+
+	@Test
+	public void toEvent() {
+		EventDto eventDto = eventDto();
+
+		Event expected = modelMapper.map(eventDto, Event.class);
+		Event actual = eventMapper.toEvent(eventDto);
+
+		assertThat(actual).isEqualToComparingFieldByField(expected);
+		assertThat(actual.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+	}
+
+	@Test
+	public void update() {
+		EventDto eventDto = eventDto();
+		eventDto.setLocation(null);
+		eventDto.setName("updated event");
+
+		Event expected = existingEvent();
+		modelMapper.map(eventDto, expected);
+		expected = modelMapper.map(expected, Event.class);
+		Event actual = existingEvent();
+		eventMapper.update(eventDto, actual);
+
+		assertThat(actual).isEqualToIgnoringGivenFields(expected, "manager");
+		assertThat(actual.getManager().getId()).isEqualTo(expected.getManager().getId());
+	}
+
+	@Test
+	public void toDto() {
+		Event event = existingEvent();
+
+		assertThat(eventMapper.toDto(event)).isEqualTo(modelMapper.map(event, EventDto.class));
+	}
+
+	private EventDto eventDto() {
+		return EventDto.builder()
+				.name("Spring").description("REST API Development")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 12, 26, 14, 21))
+				.basePrice(100)
+				.maxPrice(200)
+				.limitOfEnrollment(100)
+				.location("강남역 D2 스타트업 팩토리")
+				.build();
+	}
+
+	private Event existingEvent() {
+		return Event.builder()
+				.id(10)
+				.name("event").description("test event")
+				.beginEnrollmentDateTime(LocalDateTime.of(2018, 11, 23, 14, 21))
+				.closeEnrollmentDateTime(LocalDateTime.of(2018, 11, 24, 14, 21))
+				.beginEventDateTime(LocalDateTime.of(2018, 11, 25, 14, 21))
+				.endEventDateTime(LocalDateTime.of(2018, 11, 26, 14, 21))
+				.basePrice(0)
+				.maxPrice(0)
+				.limitOfEnrollment(10)
+				.location("D2")
+				.offline(true)
+				.free(true)
+				.eventStatus(EventStatus.PUBLISHED)
+				.manager(Account.builder().id(1).email("keesun@email.com").build())
+				.build();
+	}
+}
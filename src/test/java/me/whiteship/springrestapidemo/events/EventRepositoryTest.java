@@ -0,0 +1,107 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventRepositoryTest {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Test
+	@TestDescription("커서로 앞뒤 페이지를 넘겨도 정렬 결과와 같다")
+	public void findByKeyset() {
+		IntStream.range(0, 25).forEach(i -> this.eventRepository.save(Event.builder()
+				.name("keyset " + (i % 7))
+				.beginEventDateTime(LocalDateTime.of(2018, 12, 25, 14, 21).plusHours(i % 5))
+				.build()));
+
+		assertKeysetPages(Sort.Order.desc("name"), Event::getName);
+	}
+
+	@Test
+	@TestDescription("정렬 값이 null인 이벤트도 커서로 빠짐없이 넘긴다")
+	public void findByKeysetWithNulls() {
+		IntStream.range(0, 25).forEach(i -> this.eventRepository.save(Event.builder()
+				.name(i % 3 == 0 ? null : "nullable " + (i % 4))
+				.beginEnrollmentDateTime(i % 2 == 0 ? null : LocalDateTime.of(2018, 11, 23, 14, 21).plusHours(i % 5))
+				.build()));
+
+		assertKeysetPages(Sort.Order.asc("beginEnrollmentDateTime"), Event::getBeginEnrollmentDateTime);
+		assertKeysetPages(Sort.Order.desc("beginEnrollmentDateTime"), Event::getBeginEnrollmentDateTime);
+		assertKeysetPages(Sort.Order.asc("name"), Event::getName);
+		assertKeysetPages(Sort.Order.desc("name"), Event::getName);
+
+		Event nullName = this.eventRepository.findAfter(null, null, Sort.Order.desc("name"), 1).get(0);
+		assertThat(nullName.getName()).isNull();
+		EventCursor cursor = EventCursor.decode(EventCursor.of(nullName, "name").encode());
+		assertThat(this.eventRepository.findAfter(null, cursor, Sort.Order.desc("name"), 1)).doesNotContain(nullName);
+	}
+
+	private <T extends Comparable<T>> void assertKeysetPages(Sort.Order order, Function<Event, T> sortKey) {
+		// nulls sort after every value, so they come last going up and first going down
+		Comparator<Event> comparator = Comparator.comparing(sortKey, Comparator.nullsLast(Comparator.<T>naturalOrder()))
+				.thenComparing(Event::getId);
+		List<Integer> expected = this.eventRepository.findAll().stream()
+				.sorted(order.isAscending() ? comparator : comparator.reversed())
+				.map(Event::getId)
+				.collect(Collectors.toList());
+
+		List<Integer> forward = new ArrayList<>();
+		EventCursor cursor = null;
+		List<Event> page;
+		do {
+			page = this.eventRepository.findAfter(null, cursor, order, 10);
+			page.forEach(e -> forward.add(e.getId()));
+			cursor = page.isEmpty() ? null : EventCursor.decode(EventCursor.of(page.get(page.size() - 1), order.getProperty()).encode());
+		} while (page.size() == 10);
+		assertThat(forward).isEqualTo(expected);
+
+		List<Integer> backward = new ArrayList<>();
+		cursor = null;
+		do {
+			page = this.eventRepository.findBefore(null, cursor, order, 10);
+			List<Integer> ids = page.stream().map(Event::getId).collect(Collectors.toList());
+			backward.addAll(0, ids);
+			cursor = page.isEmpty() ? null : EventCursor.decode(EventCursor.of(page.get(0), order.getProperty()).encode());
+		} while (page.size() == 10);
+		assertThat(backward).isEqualTo(expected);
+	}
+
+	@Test
+	@TestDescription("다른 요청이 먼저 수정한 이벤트는 덮어쓰지 않는다")
+	public void optimisticLocking() {
+		Event event = this.eventRepository.save(Event.builder().name("versioned").build());
+		assertThat(event.getVersion()).isEqualTo(0);
+
+		Event first = this.eventRepository.findById(event.getId()).get();
+		Event second = this.eventRepository.findById(event.getId()).get();
+		first.setName("first");
+		assertThat(this.eventRepository.save(first).getVersion()).isEqualTo(1);
+
+		second.setName("second");
+		assertThatThrownBy(() -> this.eventRepository.save(second))
+				.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		assertThat(this.eventRepository.findById(event.getId()).get().getName()).isEqualTo("first");
+	}
+}
@@ -0,0 +1,212 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.accounts.Account;
+import me.whiteship.springrestapidemo.accounts.AccountRepository;
+import me.whiteship.springrestapidemo.accounts.AccountRole;
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=me.whiteship.springrestapidemo.events.EventSearchTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+public class EventSearchTest {
+	private static final LocalDateTime NEXT_WEEK = LocalDateTime.of(2019, 3, 4, 0, 0);
+
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	DataSource dataSource;
+
+	Account manager;
+
+	@Before
+	public void setUp() {
+		this.eventRepository.deleteAll();
+		this.manager = this.accountRepository.save(Account.builder()
+				.email("search" + System.nanoTime() + "@email.com")
+				.roles(Collections.singleton(AccountRole.USER))
+				.build());
+		IntStream.range(0, 40).forEach(i -> {
+			Event event = Event.builder()
+					.name("event " + i)
+					.beginEnrollmentDateTime(NEXT_WEEK.minusDays(14 - i % 10))
+					.closeEnrollmentDateTime(NEXT_WEEK.minusDays(7 - i % 10))
+					.beginEventDateTime(NEXT_WEEK.plusDays(i % 10 - 3))
+					.endEventDateTime(NEXT_WEEK.plusDays(i % 10 - 2))
+					.basePrice(i % 4 == 0 ? 0 : 100 * i)
+					.maxPrice(i % 4 == 0 ? 0 : 200 * i)
+					.location(i % 2 == 0 ? "D2" : null)
+					.eventStatus(i % 3 == 0 ? EventStatus.PUBLISHED : EventStatus.DRAFT)
+					.manager(i % 5 == 0 ? this.manager : null)
+					.build();
+			event.update();
+			this.eventRepository.save(event);
+		});
+	}
+
+	@Test
+	@TestDescription("공개된 무료 오프라인 이벤트 중 다음 주에 시작하는 이벤트만 조회한다")
+	public void searchPublishedFreeOfflineEventsNextWeek() {
+		EventSearch eventSearch = new EventSearch();
+		eventSearch.setEventStatus(EventStatus.PUBLISHED);
+		eventSearch.setFree(true);
+		eventSearch.setOffline(true);
+		eventSearch.setBeginEventFrom(NEXT_WEEK);
+		eventSearch.setBeginEventTo(NEXT_WEEK.plusDays(7));
+
+		Page<Event> page = this.eventRepository.findAll(eventSearch.toSpecification(), PageRequest.of(0, 20, Sort.by("id")));
+
+		List<Event> expected = this.eventRepository.findAll(Sort.by("id")).stream()
+				.filter(e -> e.getEventStatus() == EventStatus.PUBLISHED && e.isFree() && e.isOffline())
+				.filter(e -> !e.getBeginEventDateTime().isBefore(NEXT_WEEK) && e.getBeginEventDateTime().isBefore(NEXT_WEEK.plusDays(7)))
+				.collect(Collectors.toList());
+		assertThat(expected).isNotEmpty();
+		assertThat(page.getContent()).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	@TestDescription("가격 범위, 모집 기간, 매니저 조건을 함께 걸 수 있다")
+	public void searchByPriceEnrollmentAndManager() {
+		EventSearch eventSearch = new EventSearch();
+		eventSearch.setBasePriceFrom(100);
+		eventSearch.setBasePriceTo(2000);
+		eventSearch.setEnrollmentFrom(NEXT_WEEK.minusDays(7));
+		eventSearch.setEnrollmentTo(NEXT_WEEK.minusDays(5));
+		eventSearch.setManager(this.manager.getId());
+
+		List<Event> events = this.eventRepository.findAll(eventSearch.toSpecification(), PageRequest.of(0, 20, Sort.by("id"))).getContent();
+
+		List<Event> expected = this.eventRepository.findAll(Sort.by("id")).stream()
+				.filter(e -> e.getBasePrice() >= 100 && e.getBasePrice() <= 2000)
+				.filter(e -> !e.getCloseEnrollmentDateTime().isBefore(NEXT_WEEK.minusDays(7))
+						&& e.getBeginEnrollmentDateTime().isBefore(NEXT_WEEK.minusDays(5)))
+				.filter(e -> e.getManager() != null && e.getManager().getId().equals(this.manager.getId()))
+				.collect(Collectors.toList());
+		assertThat(expected).isNotEmpty();
+		assertThat(events).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	@TestDescription("fields로 고른 컬럼을 조회하거나 커서로 넘길 때도 검색 조건을 적용한다")
+	public void searchWithFieldsAndCursor() {
+		EventSearch eventSearch = new EventSearch();
+		eventSearch.setFree(true);
+		eventSearch.setEventStatus(EventStatus.PUBLISHED);
+		Sort.Order order = Sort.Order.desc("beginEventDateTime");
+		List<Integer> expected = this.eventRepository.findAll(Sort.by(order, Sort.Order.desc("id"))).stream()
+				.filter(e -> e.isFree() && e.getEventStatus() == EventStatus.PUBLISHED)
+				.map(Event::getId)
+				.collect(Collectors.toList());
+		assertThat(expected).hasSize(4);
+
+		Page<Map<String, Object>> projected = this.eventRepository.findAllProjected(eventSearch.toSpecification(),
+				Collections.singletonList("free"), PageRequest.of(0, 3, Sort.by(order, Sort.Order.desc("id"))));
+		assertThat(projected.getTotalElements()).isEqualTo(4);
+		assertThat(projected.getContent()).extracting(row -> row.get("id")).containsExactlyElementsOf(expected.subList(0, 3));
+
+		List<Integer> paged = new ArrayList<>();
+		EventCursor cursor = null;
+		List<Event> page;
+		do {
+			page = this.eventRepository.findAfter(eventSearch.toSpecification(), cursor, order, 3);
+			page.forEach(e -> paged.add(e.getId()));
+			cursor = page.isEmpty() ? null : EventCursor.of(page.get(page.size() - 1), order.getProperty());
+		} while (page.size() == 3);
+		assertThat(paged).isEqualTo(expected);
+		assertThat(this.eventRepository.findBefore(eventSearch.toSpecification(), null, order, 3))
+				.extracting(Event::getId).containsExactlyElementsOf(expected.subList(1, 4));
+	}
+
+	@Test
+	@TestDescription("검색 조건은 인덱스 범위 스캔으로 실행된다")
+	public void searchUsesIndexRangeScans() throws SQLException {
+		EventSearch byStatusAndDate = new EventSearch();
+		byStatusAndDate.setEventStatus(EventStatus.PUBLISHED);
+		byStatusAndDate.setFree(true);
+		byStatusAndDate.setBeginEventFrom(NEXT_WEEK);
+		byStatusAndDate.setBeginEventTo(NEXT_WEEK.plusDays(7));
+		assertThat(plan(byStatusAndDate)).contains("IDX_EVENT_STATUS_BEGIN_EVENT").doesNotContain("tableScan");
+
+		EventSearch byManager = new EventSearch();
+		byManager.setManager(this.manager.getId());
+		byManager.setBeginEventFrom(NEXT_WEEK);
+		// H2 indexes the foreign key on its own and may pick either index with manager_id first
+		assertThat(plan(byManager)).containsPattern("/\\* PUBLIC\\.\\w+: MANAGER_ID = ").doesNotContain("tableScan");
+
+		EventSearch byDate = new EventSearch();
+		byDate.setOffline(true);
+		byDate.setBeginEventFrom(NEXT_WEEK);
+		byDate.setBeginEventTo(NEXT_WEEK.plusDays(7));
+		assertThat(plan(byDate)).contains("IDX_EVENT_BEGIN_EVENT").doesNotContain("tableScan");
+
+		EventSearch byEnrollment = new EventSearch();
+		byEnrollment.setEnrollmentFrom(NEXT_WEEK);
+		assertThat(plan(byEnrollment)).contains("IDX_EVENT_CLOSE_ENROLLMENT").doesNotContain("tableScan");
+
+		EventSearch byPrice = new EventSearch();
+		byPrice.setBasePriceFrom(100);
+		byPrice.setBasePriceTo(500);
+		assertThat(plan(byPrice)).contains("IDX_EVENT_BASE_PRICE").doesNotContain("tableScan");
+	}
+
+	private String plan(EventSearch eventSearch) throws SQLException {
+		CapturingStatementInspector.STATEMENTS.clear();
+		this.eventRepository.findAll(eventSearch.toSpecification());
+		String sql = CapturingStatementInspector.STATEMENTS.stream()
+				.filter(s -> s.startsWith("select") && s.contains(" from event "))
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+
+		try (Connection connection = this.dataSource.getConnection();
+		     PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+			// the plan is chosen when the statement is prepared, the values only have to be bound
+			for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+				statement.setObject(i, null);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getString(1);
+			}
+		}
+	}
+
+	public static class CapturingStatementInspector implements StatementInspector {
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql.replaceAll("\\s+", " ").trim());
+			return sql;
+		}
+	}
+}
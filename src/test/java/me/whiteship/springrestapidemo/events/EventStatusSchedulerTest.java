@@ -0,0 +1,136 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventStatusSchedulerTest {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventVersionCache eventVersionCache;
+
+	@Autowired
+	EventCalendar eventCalendar;
+
+	@Autowired
+	ApplicationEventPublisher applicationEventPublisher;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Test
+	@TestDescription("등록 시작 시각이 지난 PUBLISHED 이벤트만 한 번의 UPDATE로 등록 중으로 바꾸고 버전을 올린다")
+	public void beginDueEnrollments() {
+		LocalDateTime now = LocalDateTime.now();
+		Event due = this.eventRepository.save(event(now.minusMinutes(1), EventStatus.PUBLISHED));
+		Event dueNow = this.eventRepository.save(event(now, EventStatus.PUBLISHED));
+		Event later = this.eventRepository.save(event(now.plusHours(1), EventStatus.PUBLISHED));
+		Event draft = this.eventRepository.save(event(now.minusMinutes(1), EventStatus.DRAFT));
+		EventStatusScheduler scheduler = scheduler(due, dueNow, later, draft);
+		this.eventVersionCache.put(due);
+
+		assertThat(scheduler.isScheduled(draft.getId())).isFalse();
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		try {
+			statistics.clear();
+			// the wheel hands out deadlines that passed before it started on its first tick
+			assertThat(scheduler.beginDueEnrollments(System.currentTimeMillis() + 1_000)).isEqualTo(2);
+			// one bulk UPDATE, then one SELECT to refresh the in-memory views
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+
+		assertThat(status(due)).isEqualTo("BEGAN_ENROLLMENT");
+		assertThat(status(dueNow)).isEqualTo("BEGAN_ENROLLMENT");
+		assertThat(status(later)).isEqualTo("PUBLISHED");
+		assertThat(status(draft)).isEqualTo("DRAFT");
+		assertThat(this.eventRepository.findById(due.getId()).get().getVersion()).isEqualTo(due.getVersion() + 1);
+		assertThat(this.eventVersionCache.get(due.getId())).isNull();
+		assertThat(this.eventCalendar.enrollmentOpenAt(now))
+				.filteredOn(entry -> entry.getId().equals(due.getId()))
+				.extracting(EventCalendarEntry::getEventStatus).containsExactly(EventStatus.BEGAN_ENROLLMENT);
+		assertThat(scheduler.isScheduled(due.getId())).isFalse();
+		assertThat(scheduler.isScheduled(later.getId())).isTrue();
+	}
+
+	@Test
+	@TestDescription("재시작하면 PUBLISHED 이벤트의 등록 시작 시각으로 일정을 다시 만든다")
+	public void rebuildFromRepository() {
+		LocalDateTime now = LocalDateTime.now();
+		Event published = this.eventRepository.save(event(now.plusDays(1), EventStatus.PUBLISHED));
+		Event draft = this.eventRepository.save(event(now.plusDays(1), EventStatus.DRAFT));
+		EventStatusScheduler scheduler = scheduler();
+
+		this.transactionTemplate.execute(status -> {
+			scheduler.rebuild();
+			return null;
+		});
+
+		assertThat(scheduler.isScheduled(published.getId())).isTrue();
+		assertThat(scheduler.isScheduled(draft.getId())).isFalse();
+		List<String> plan = new JdbcTemplate(this.dataSource).queryForList(
+				"explain select id, begin_enrollment_date_time from event " +
+				"where event_status = 'PUBLISHED' and begin_enrollment_date_time is not null", String.class);
+		assertThat(plan.get(0)).contains("IDX_EVENT_STATUS_BEGIN_EVENT: EVENT_STATUS = 'PUBLISHED'").doesNotContain("tableScan");
+	}
+
+	private EventStatusScheduler scheduler(Event... events) {
+		EventStatusScheduler scheduler = new EventStatusScheduler();
+		scheduler.eventRepository = this.eventRepository;
+		scheduler.eventVersionCache = this.eventVersionCache;
+		scheduler.applicationEventPublisher = this.applicationEventPublisher;
+		scheduler.transactionTemplate = this.transactionTemplate;
+		scheduler.tickMillis = 1_000;
+		scheduler.wheelSize = 64;
+		scheduler.batchSize = 500;
+		scheduler.initWheel();
+		Arrays.stream(events).forEach(event -> scheduler.eventSaved(new EventSaved(event)));
+		return scheduler;
+	}
+
+	private String status(Event event) {
+		return new JdbcTemplate(this.dataSource).queryForObject("select event_status from event where id = ?", String.class, event.getId());
+	}
+
+	private Event event(LocalDateTime beginEnrollment, EventStatus eventStatus) {
+		return Event.builder()
+				.name("scheduled")
+				.beginEnrollmentDateTime(beginEnrollment)
+				.closeEnrollmentDateTime(beginEnrollment.plusDays(1))
+				.beginEventDateTime(beginEnrollment.plusDays(2))
+				.endEventDateTime(beginEnrollment.plusDays(3))
+				.limitOfEnrollment(10)
+				.eventStatus(eventStatus)
+				.build();
+	}
+}
@@ -0,0 +1,87 @@
+package me.whiteship.springrestapidemo.events;
+
+import me.whiteship.springrestapidemo.common.TestDescription;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.Resources;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventTextIndexTest {
+	@Autowired
+	EventRepository eventRepository;
+
+	@Autowired
+	EventController eventController;
+
+	@Autowired
+	EventTextIndex eventTextIndex;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@After
+	public void resetRequestAttributes() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	@TestDescription("이름, 장소, 설명에서 단어를 찾아 이름에 있는 이벤트를 앞에 둔다")
+	public void searchEvents() {
+		Event inDescription = this.eventRepository.save(Event.builder()
+				.name("Meetup").description("Kotlinconf recap").location("판교")
+				.eventStatus(EventStatus.DRAFT).build());
+		Event inName = this.eventRepository.save(Event.builder()
+				.name("Kotlinconf 2019").description("talks").location("강남역 D2")
+				.eventStatus(EventStatus.DRAFT).build());
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/events/search")));
+
+		Resources<Resource<Event>> resources = (Resources<Resource<Event>>) this.eventController.searchEvents("kotlin", 20).join().getBody();
+		assertThat(resources.getContent()).extracting(resource -> resource.getContent().getId())
+				.containsExactly(inName.getId(), inDescription.getId());
+
+		inName.setName("Springcamp");
+		this.eventRepository.save(inName);
+		resources = (Resources<Resource<Event>>) this.eventController.searchEvents("kotlinconf", 20).join().getBody();
+		assertThat(resources.getContent()).extracting(resource -> resource.getContent().getId())
+				.containsExactly(inDescription.getId());
+
+		resources = (Resources<Resource<Event>>) this.eventController.searchEvents("강남 springc", 20).join().getBody();
+		assertThat(resources.getContent()).extracting(resource -> resource.getContent().getId())
+				.containsExactly(inName.getId());
+		assertThat(resources.getLink("profile")).isNotNull();
+	}
+
+	@Test
+	@TestDescription("다시 만드는 중에 읽은 예전 버전의 이벤트는 그 사이에 저장된 단어를 덮어쓰지 않는다")
+	public void ignoreOlderVersions() {
+		Integer id = this.eventRepository.save(Event.builder()
+				.name("Devoxx").eventStatus(EventStatus.DRAFT).build()).getId();
+		Event saved = this.transactionTemplate.execute(status -> {
+			Event event = this.eventRepository.findById(id).get();
+			event.setName("Jfokus");
+			return this.eventRepository.save(event);
+		});
+
+		Event stale = Event.builder().id(saved.getId()).version(saved.getVersion() - 1)
+				.name("Devoxx").eventStatus(EventStatus.DRAFT).build();
+		this.eventTextIndex.put(stale);
+
+		assertThat(this.eventTextIndex.search("devoxx", 20)).doesNotContain(saved.getId());
+		assertThat(this.eventTextIndex.search("jfokus", 20)).containsExactly(saved.getId());
+	}
+}
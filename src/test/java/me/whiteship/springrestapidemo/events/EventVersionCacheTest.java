@@ -0,0 +1,47 @@
+package me.whiteship.springrestapidemo.events;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventVersionCacheTest {
+
+	@Test
+	public void eTag() {
+		assertThat(EventVersionCache.eTag(3)).isEqualTo("\"3\"");
+	}
+
+	@Test
+	public void matches() {
+		assertThat(EventVersionCache.matches("\"3\"", 3)).isTrue();
+		assertThat(EventVersionCache.matches("\"1\", W/\"3\"", 3)).isTrue();
+		assertThat(EventVersionCache.matches("*", 3)).isTrue();
+		assertThat(EventVersionCache.matches("\"2\"", 3)).isFalse();
+		assertThat(EventVersionCache.matches(null, 3)).isFalse();
+		assertThat(EventVersionCache.matches("\"3\"", null)).isFalse();
+	}
+
+	@Test
+	public void matchesStrongly() {
+		assertThat(EventVersionCache.matchesStrongly("\"3\"", 3)).isTrue();
+		assertThat(EventVersionCache.matchesStrongly("W/\"3\"", 3)).isFalse();
+	}
+
+	@Test
+	public void putAndEvict() {
+		EventVersionCache cache = new EventVersionCache();
+		cache.put(Event.builder().id(1).version(5).build());
+		cache.put(Event.builder().id(2).build());
+
+		assertThat(cache.get(1)).isEqualTo(5);
+		assertThat(cache.get(2)).isNull();
+
+		cache.put(Event.builder().id(1).version(4).build());
+		assertThat(cache.get(1)).isEqualTo(5);
+		cache.put(Event.builder().id(1).version(6).build());
+		assertThat(cache.get(1)).isEqualTo(6);
+
+		cache.evict(1);
+		assertThat(cache.get(1)).isNull();
+	}
+}